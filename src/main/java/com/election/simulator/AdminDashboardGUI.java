@@ -4,6 +4,7 @@ import com.election.simulator.auth.AuthService;
 import com.election.simulator.model.Party;
 import com.election.simulator.model.Voter;
 import com.election.simulator.service.ElectionService;
+import com.election.simulator.service.allocation.SeatAllocationStrategy;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -26,6 +27,7 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 import java.io.File;
 import java.util.List;
@@ -263,7 +265,31 @@ public class AdminDashboardGUI extends Application {
         updateSeatsButton.setOnAction(e -> updateTotalSeats());
 
         seatsInput.getChildren().addAll(totalSeatsField, updateSeatsButton);
-        seatsConfig.getChildren().addAll(seatsLabel, seatsInput);
+
+        Label methodLabel = new Label("Seat Allocation Method:");
+        methodLabel.getStyleClass().add("section-label");
+
+        ComboBox<SeatAllocationStrategy> methodBox = new ComboBox<>(
+                FXCollections.observableArrayList(electionService.getAvailableStrategies()));
+        methodBox.setConverter(new StringConverter<SeatAllocationStrategy>() {
+            @Override
+            public String toString(SeatAllocationStrategy strategy) {
+                return strategy == null ? "" : strategy.getName();
+            }
+
+            @Override
+            public SeatAllocationStrategy fromString(String name) {
+                return null;
+            }
+        });
+        methodBox.setValue(electionService.getSeatAllocationStrategy());
+        methodBox.setOnAction(e -> {
+            electionService.setSeatAllocationStrategy(methodBox.getValue());
+            electionService.calculateAndAllocateSeats();
+            loadPartyData();
+        });
+
+        seatsConfig.getChildren().addAll(seatsLabel, seatsInput, methodLabel, methodBox);
 
         // Election statistics
         VBox statsBox = createElectionStatsBox();
@@ -347,7 +373,9 @@ public class AdminDashboardGUI extends Application {
         adminCol.setCellValueFactory(new PropertyValueFactory<>("admin"));
 
         voterTable.getColumns().addAll(usernameCol, fullNameCol, nationalIdCol, adminCol);
-        voterTable.setItems(FXCollections.observableArrayList(authService.getAllVoters()));
+        ObservableList<Voter> voters = FXCollections.observableArrayList();
+        authService.forEachVoter(voters::add);
+        voterTable.setItems(voters);
 
         pane.getChildren().addAll(title, voterTable);
         return pane;
@@ -469,21 +497,17 @@ public class AdminDashboardGUI extends Application {
 
         dialog.getDialogPane().setContent(grid);
 
-        dialog.setResultConverter(dialogButton -> {
-            if (dialogButton == saveButtonType) {
-                selectedParty.setName(nameField.getText().trim());
-                selectedParty.setAbbreviation(abbrField.getText().trim());
-                selectedParty.setIconPath(iconPath[0]);
-                return selectedParty;
-            }
-            return null;
-        });
+        dialog.setResultConverter(dialogButton -> dialogButton == saveButtonType ? selectedParty : null);
 
         Optional<Party> result = dialog.showAndWait();
         result.ifPresent(party -> {
-            electionService.updateParty(party);
-            loadPartyData();
-            showAlert("Success", "Party has been updated successfully.", Alert.AlertType.INFORMATION);
+            // The service applies the edit so that a rename reaches the ballot log
+            if (electionService.updateParty(party, nameField.getText().trim(), abbrField.getText().trim(), iconPath[0])) {
+                loadPartyData();
+                showAlert("Success", "Party has been updated successfully.", Alert.AlertType.INFORMATION);
+            } else {
+                showAlert("Error", "Party could not be updated.", Alert.AlertType.ERROR);
+            }
         });
     }
 
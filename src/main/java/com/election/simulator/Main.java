@@ -6,6 +6,7 @@ import com.election.simulator.service.ElectionService;
 import com.election.simulator.model.Voter;
 import com.election.simulator.model.Party;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Scanner;
@@ -23,6 +24,8 @@ public class Main {
         parties.add(new Party("Party B", "PB"));
         parties.add(new Party("Party C", "PC"));
         electionService.setParties(parties);
+        // Restore ballots from previous runs and persist new ones
+        electionService.attachBallotLog(Paths.get(ElectionService.DEFAULT_BALLOT_LOG_PATH));
 
         System.out.println("PR Election Simulator (Core Functionality with Enhanced Face Recognition Simulation) Started!");
 
@@ -59,6 +62,7 @@ public class Main {
                         break;
                     case 0:
                         System.out.println("Exiting application.");
+                        electionService.closeBallotLog();
                         scanner.close();
                         return;
                     default:
@@ -11,13 +11,18 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import com.election.simulator.auth.AuthService;
+import com.election.simulator.auth.BoothVerificationService;
 import com.election.simulator.auth.FaceRecognitionService;
+import com.election.simulator.auth.PasswordHasher;
 import com.election.simulator.model.Voter;
 import com.election.simulator.service.ElectionService;
 
+import java.nio.file.Paths;
+
 public class MainGUI extends Application {
 	private AuthService authService;
 	private FaceRecognitionService faceService;
+	private BoothVerificationService boothService;
 	private ElectionService electionService;
 	private Stage primaryStage;
 	private Voter currentVoter;
@@ -28,12 +33,14 @@ public class MainGUI extends Application {
 		this.primaryStage = primaryStage;
 
 		// Initialize services
-		authService = new AuthService();
 		faceService = new FaceRecognitionService();
+		boothService = new BoothVerificationService(faceService);
+		authService = new AuthService(new PasswordHasher(), faceService, boothService);
 		electionService = new ElectionService();
+		electionService.attachBallotLog(Paths.get(ElectionService.DEFAULT_BALLOT_LOG_PATH));
 
 		// Check if an admin voter exists, if not, create a temporary one
-		if (authService.getAllVoters().stream().noneMatch(Voter::isAdmin)) {
+		if (!authService.anyVoterMatches(Voter::isAdmin)) {
 			authService.registerVoter("admin", "adminpass", "Administrator", "00000000000", true);
 			showAlert("Initial Admin Account Created", "A temporary admin account (username: admin, password: adminpass) has been created. Please log in and register your face.");
 			preInitSetup = true;
@@ -47,6 +54,12 @@ public class MainGUI extends Application {
 		primaryStage.show();
 	}
 
+	@Override
+	public void stop() {
+		boothService.close();
+		electionService.closeBallotLog();
+	}
+
 	private void showLoginScreen() {
 		VBox root = new VBox(20);
 		root.setAlignment(Pos.CENTER);
@@ -174,9 +187,9 @@ public class MainGUI extends Application {
 			}
 
 			statusLabel.setText("Starting face capture...");
-			// Run face capture in background thread
-			new Thread(() -> {
-				boolean success = faceService.captureAndStoreFaceWithStream(nationalIdField.getText().trim(), cameraView);
+			// Run face capture on the booth verification workers
+			boothService.enroll(nationalIdField.getText().trim(), cameraView).whenComplete((captured, error) -> {
+				boolean success = error == null && captured;
 				javafx.application.Platform.runLater(() -> {
 					if (success) {
 						statusLabel.setText("Face captured successfully!");
@@ -184,11 +197,12 @@ public class MainGUI extends Application {
 						faceCaptured[0] = true;
 						registerButton.setDisable(false);
 					} else {
-						statusLabel.setText("Face capture failed. Please try again.");
+						statusLabel.setText(error != null ? "Face capture unavailable: " + error.getMessage()
+								: "Face capture failed. Please try again.");
 						statusLabel.setStyle("-fx-text-fill: #e74c3c;");
 					}
 				});
-			}).start();
+			});
 		});
 
 		registerButton.setOnAction(e -> {
@@ -207,7 +221,8 @@ public class MainGUI extends Application {
 				return;
 			}
 
-			boolean success = authService.registerVoterWithFace(username, password, fullName, nationalId, false);
+			// The face was stored by the capture step, so only the account is created here
+			boolean success = authService.registerVoter(username, password, fullName, nationalId, false);
 			if (success) {
 				showAlert("Registration Successful", "Voter registered successfully! You can now login.");
 				showLoginScreen();
@@ -244,17 +259,16 @@ public class MainGUI extends Application {
 		cameraStage.setScene(cameraScene);
 		cameraStage.show();
 
-		new Thread(() -> {
-			boolean faceVerified = faceService.verifyFaceWithStream(voter.getNationalId(), cameraView);
+		authService.verifyVoterAsync(voter, cameraView).whenComplete((verified, error) -> {
 			javafx.application.Platform.runLater(() -> {
 				cameraStage.close();
-				if (faceVerified) {
+				if (verified != null) {
 					showAdminDashboard();
 				} else {
-					showAlert("Login Failed", "Face verification failed. Access denied.");
+					showAlert("Login Failed", verificationFailure(error) + " Access denied.");
 				}
 			});
-		}).start();
+		});
 	}
 	private void handleLogin(String username, String password) {
 		if (username.trim().isEmpty() || password.trim().isEmpty()) {
@@ -262,13 +276,19 @@ public class MainGUI extends Application {
 			return;
 		}
 
-		// First verify password
-		Voter voter = authService.login(username, password);
-		if (voter == null) {
-			showAlert("Login Failed", "Invalid username or password");
-			return;
-		}
+		// First verify password, off the FX thread
+		authService.authenticateVoterAsync(username, password).whenComplete((voter, error) ->
+				javafx.application.Platform.runLater(() -> {
+					if (voter == null) {
+						showAlert("Login Failed", error != null ? "Login is busy. Please try again shortly."
+								: "Invalid username or password");
+						return;
+					}
+					continueLogin(voter);
+				}));
+	}
 
+	private void continueLogin(Voter voter) {
 		currentVoter = voter;
 
 		// If admin and no face data, go to admin dashboard and prompt for face registration
@@ -295,17 +315,16 @@ public class MainGUI extends Application {
 			cameraStage.setScene(cameraScene);
 			cameraStage.show();
 
-			new Thread(() -> {
-				boolean faceVerified = faceService.verifyFaceWithStream(voter.getNationalId(), cameraView);
+			authService.verifyVoterAsync(voter, cameraView).whenComplete((verified, error) -> {
 				javafx.application.Platform.runLater(() -> {
 					cameraStage.close();
-					if (faceVerified) {
+					if (verified != null) {
 						showVotingScreen();
 					} else {
-						showAlert("Login Failed", "Face verification failed. Access denied.");
+						showAlert("Login Failed", verificationFailure(error) + " Access denied.");
 					}
 				});
-			}).start();
+			});
 		}
 	}
 
@@ -384,11 +403,10 @@ public class MainGUI extends Application {
 			cameraStage.setScene(cameraScene);
 			cameraStage.show();
 
-			new Thread(() -> {
-				boolean faceVerified = faceService.verifyFaceWithStream(currentVoter.getNationalId(), cameraView);
+			authService.verifyVoterAsync(currentVoter, cameraView).whenComplete((verified, error) -> {
 				javafx.application.Platform.runLater(() -> {
 					cameraStage.close();
-					if (faceVerified) {
+					if (verified != null) {
 						boolean voteSuccess = electionService.castVote(currentVoter.getNationalId(), selectedParty);
 						if (voteSuccess) {
 							showAlert("Vote Cast", "Your vote for " + selectedParty + " has been recorded successfully!");
@@ -397,10 +415,10 @@ public class MainGUI extends Application {
 							showAlert("Vote Error", "You have already voted or there was an error processing your vote.");
 						}
 					} else {
-						showAlert("Verification Failed", "Face verification failed. Vote not cast.");
+						showAlert("Verification Failed", verificationFailure(error) + " Vote not cast.");
 					}
 				});
-			}).start();
+			});
 		});
 
 		logoutButton.setOnAction(e -> {
@@ -420,6 +438,17 @@ public class MainGUI extends Application {
 		primaryStage.setScene(scene);
 	}
 
+	// Distinguishes a face mismatch from a busy or timed-out booth
+	private String verificationFailure(Throwable error) {
+		if (error instanceof java.util.concurrent.RejectedExecutionException) {
+			return "All verification stations are busy. Please try again shortly.";
+		}
+		if (error instanceof java.util.concurrent.TimeoutException) {
+			return "Face verification timed out.";
+		}
+		return "Face verification failed.";
+	}
+
 	private void showAlert(String title, String message) {
 		Alert alert = new Alert(Alert.AlertType.INFORMATION);
 		alert.setTitle(title);
@@ -1,14 +1,22 @@
 package com.election.simulator.admin;
 
 import com.election.simulator.auth.AuthService;
+import com.election.simulator.auth.FaceEnroller;
+import com.election.simulator.auth.VoterImporter;
+import com.election.simulator.model.District;
 import com.election.simulator.model.Party;
 import com.election.simulator.model.Voter;
 import com.election.simulator.service.ElectionService;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 public class AdminDashboard {
+    private static final int VOTER_PAGE_SIZE = 50;
+
     private AuthService authService;
     private ElectionService electionService;
     private Scanner scanner;
@@ -33,6 +41,8 @@ public class AdminDashboard {
             System.out.println("3. Monitor Voting Activity");
             System.out.println("4. View Election Results");
             System.out.println("5. Recalculate Seats");
+            System.out.println("6. Save Election Snapshot");
+            System.out.println("7. Load Election Snapshot");
             System.out.println("0. Logout");
             System.out.print("Enter your choice: ");
             choice = scanner.nextInt();
@@ -54,6 +64,13 @@ public class AdminDashboard {
                 case 5:
                     electionService.calculateAndAllocateSeats();
                     break;
+                case 6:
+                    authService.withAllVoters(voters ->
+                            electionService.saveSnapshot(Paths.get(ElectionService.DEFAULT_SNAPSHOT_PATH), voters, true));
+                    break;
+                case 7:
+                    loadSnapshot();
+                    break;
                 case 0:
                     authService.logout();
                     System.out.println("Logged out from Admin Dashboard.");
@@ -64,6 +81,16 @@ public class AdminDashboard {
         } while (choice != 0);
     }
 
+    private void loadSnapshot() {
+        CompletableFuture<Void> loading = electionService.loadSnapshot(
+                Paths.get(ElectionService.DEFAULT_SNAPSHOT_PATH), authService::restoreVoter);
+        if (loading.isCompletedExceptionally()) {
+            return; // The error has already been reported
+        }
+        System.out.println("Results are available now. Ballots are refused until the voters and ballots are restored.");
+        loading.thenRun(() -> System.out.println("Snapshot voters and ballots restored; voting is open again."));
+    }
+
     private void manageUsers() {
         System.out.println("\n--- Voter Management ---");
         int choice;
@@ -71,6 +98,8 @@ public class AdminDashboard {
             System.out.println("1. View All Voters");
             System.out.println("2. Add New Voter");
             System.out.println("3. Delete Voter");
+            System.out.println("4. Import Voters from CSV");
+            System.out.println("5. Enroll Faces from Photos");
             System.out.println("0. Back to Admin Dashboard");
             System.out.print("Enter your choice: ");
             choice = scanner.nextInt();
@@ -86,6 +115,12 @@ public class AdminDashboard {
                 case 3:
                     deleteUser();
                     break;
+                case 4:
+                    importUsers();
+                    break;
+                case 5:
+                    enrollFaces();
+                    break;
                 case 0:
                     break;
                 default:
@@ -96,13 +131,22 @@ public class AdminDashboard {
 
     private void viewAllUsers() {
         System.out.println("\n--- All Voters ---");
-        List<Voter> voters = authService.getAllVoters();
-        if (voters.isEmpty()) {
+        int total = authService.getVoterCount();
+        if (total == 0) {
             System.out.println("No voters registered.");
             return;
         }
-        for (Voter voter : voters) {
-            System.out.println(voter);
+        for (int offset = 0; offset < total; offset += VOTER_PAGE_SIZE) {
+            List<Voter> page = authService.getVoters(offset, VOTER_PAGE_SIZE);
+            for (Voter voter : page) {
+                System.out.println(voter);
+            }
+            if (offset + VOTER_PAGE_SIZE < total) {
+                System.out.print("Showing " + (offset + page.size()) + " of " + total + ". Press Enter for more, or 'q' to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+            }
         }
     }
 
@@ -119,6 +163,34 @@ public class AdminDashboard {
         authService.registerVoter(username, password, fullName, nationalId, false);
     }
 
+    private void importUsers() {
+        System.out.print("Enter path of voter CSV (username,password,fullName,nationalId[,isAdmin]): ");
+        String source = scanner.nextLine().trim();
+        System.out.print("Enter path for rejected rows (leave empty to skip): ");
+        String rejects = scanner.nextLine().trim();
+        try {
+            VoterImporter.Result result = authService.importVoters(Paths.get(source),
+                    rejects.isEmpty() ? null : Paths.get(rejects));
+            System.out.println("Voter import finished: " + result);
+        } catch (IOException e) {
+            System.err.println("Error importing voters: " + e.getMessage());
+        }
+    }
+
+    private void enrollFaces() {
+        System.out.print("Enter photo directory or zip file (photos named <nationalId>.jpg): ");
+        String source = scanner.nextLine().trim();
+        System.out.print("Enter path for failed photos report (leave empty to skip): ");
+        String failures = scanner.nextLine().trim();
+        try {
+            FaceEnroller.Result result = authService.enrollFaces(Paths.get(source),
+                    failures.isEmpty() ? null : Paths.get(failures));
+            System.out.println("Face enrollment finished: " + result);
+        } catch (IOException e) {
+            System.err.println("Error enrolling faces: " + e.getMessage());
+        }
+    }
+
     private void deleteUser() {
         System.out.print("Enter username of voter to delete: ");
         String username = scanner.nextLine();
@@ -196,6 +268,18 @@ public class AdminDashboard {
         electionService.getCurrentElection().getPoliticalParties().forEach(party -> {
             System.out.println(party.getName() + ": " + party.getVotes() + " votes, " + party.getSeats() + " seats");
         });
+        for (District district : electionService.getDistricts()) {
+            System.out.println("\n" + district.getName() + " (" + district.getSeats() + " seats):");
+            district.getAllocatedSeats().forEach((party, seats) -> {
+                System.out.println("  " + party.getName() + ": " + district.getVotes(party) + " votes, " + seats + " seats");
+            });
+        }
+        if (electionService.getCurrentElection().getCompensationSeats() > 0) {
+            System.out.println("\nCompensation seats:");
+            electionService.getCompensationResults().forEach((party, seats) -> {
+                System.out.println("  " + party.getName() + ": " + seats);
+            });
+        }
     }
 }
 
@@ -1,91 +1,261 @@
 package com.election.simulator.auth;
 
+import com.election.simulator.auth.face.FaceScanOptions;
 import com.election.simulator.model.Voter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class AuthService {
-    private List<Voter> voters;
-    private Voter currentVoter;
-    private FaceRecognitionService faceRecognitionService;
+    private static final long VERIFY_TIMEOUT_SECONDS = 30;
+    // Covers the password check, queueing for a camera and the face scan
+    private static final long FACE_LOGIN_TIMEOUT_SECONDS = 60;
+
+    private final VoterRegistry voters;
+    private final PasswordHasher passwordHasher;
+    private volatile Voter currentVoter;
+    private final FaceRecognitionService faceRecognitionService;
+    private final BoothVerificationService boothService;
 
     public AuthService() {
-        this.voters = new ArrayList<>();
-        this.faceRecognitionService = new FaceRecognitionService();
+        this(new PasswordHasher());
+    }
+
+    public AuthService(PasswordHasher passwordHasher) {
+        this(passwordHasher, new FaceRecognitionService());
+    }
+
+    public AuthService(PasswordHasher passwordHasher, FaceRecognitionService faceRecognitionService) {
+        this(passwordHasher, faceRecognitionService, new BoothVerificationService(faceRecognitionService));
+    }
+
+    /**
+     * Face scans started through this service run on boothService, whose
+     * executor, pending limit and timeout thereby configure the async API.
+     */
+    public AuthService(PasswordHasher passwordHasher, FaceRecognitionService faceRecognitionService,
+                       BoothVerificationService boothService) {
+        this.voters = new VoterRegistry();
+        this.passwordHasher = passwordHasher;
+        this.faceRecognitionService = faceRecognitionService;
+        this.boothService = boothService;
     }
 
     public boolean registerVoter(String username, String password, String fullName, String nationalId, boolean isAdmin) {
-        // Check if username or national ID already exists
-        if (voters.stream().anyMatch(v -> v.getUsername().equals(username) || v.getNationalId().equals(nationalId))) {
+        Voter newVoter = new Voter(username, passwordHasher.hash(password), fullName, nationalId, isAdmin);
+        // Fails if username or national ID already exists
+        if (!voters.add(newVoter)) {
             System.out.println("Registration failed: Username or National ID already exists.");
             return false;
         }
-        
-        Voter newVoter = new Voter(username, password, fullName, nationalId, isAdmin);
-        voters.add(newVoter);
         System.out.println("Voter registered successfully: " + username);
         return true;
     }
 
     public boolean registerVoterWithFace(String username, String password, String fullName, String nationalId, boolean isAdmin) {
+        return await(registerVoterWithFaceAsync(username, password, fullName, nationalId, isAdmin, null),
+                "Registration") != null;
+    }
+
+    /**
+     * Captures the voter's face and registers them, completing with the new
+     * voter or null when registration failed. With a preview the live
+     * preview scan settings are used, otherwise the console ones.
+     * Cancelling the future, or completing it with orTimeout, interrupts
+     * the capture.
+     */
+    public CompletableFuture<Voter> registerVoterWithFaceAsync(String username, String password, String fullName,
+                                                               String nationalId, boolean isAdmin,
+                                                               javafx.scene.image.ImageView preview) {
         // Check if username or national ID already exists
-        if (voters.stream().anyMatch(v -> v.getUsername().equals(username) || v.getNationalId().equals(nationalId))) {
+        if (voters.isTaken(username, nationalId)) {
             System.out.println("Registration failed: Username or National ID already exists.");
-            return false;
+            return CompletableFuture.completedFuture(null);
         }
         
         // Capture face for biometric registration
         System.out.println("\nFace capture required for registration...");
-        if (!faceRecognitionService.captureAndStoreFace(nationalId)) {
-            System.out.println("Registration failed: Face capture unsuccessful.");
-            return false;
-        }
-        
-        Voter newVoter = new Voter(username, password, fullName, nationalId, isAdmin);
-        voters.add(newVoter);
-        System.out.println("Voter registered successfully: " + username);
-        return true;
+        CompletableFuture<Boolean> capture = boothService.enroll(nationalId, faceRecognitionService.getCameraSession(),
+                scanOptions(preview), preview);
+        return chain(capture, captured -> {
+            if (!captured) {
+                System.out.println("Registration failed: Face capture unsuccessful.");
+                return CompletableFuture.completedFuture(null);
+            }
+            Voter newVoter = new Voter(username, passwordHasher.hash(password), fullName, nationalId, isAdmin);
+            if (!voters.add(newVoter)) {
+                System.out.println("Registration failed: Username or National ID already exists.");
+                return CompletableFuture.completedFuture(null);
+            }
+            System.out.println("Voter registered successfully: " + username);
+            return CompletableFuture.completedFuture(newVoter);
+        });
+    }
+
+    // Adds a voter restored from a snapshot, skipping duplicates
+    public boolean restoreVoter(Voter voter) {
+        return voters.add(voter);
     }
 
     public Voter authenticateVoter(String username, String password) {
-        Optional<Voter> voterOptional = voters.stream()
-                                          .filter(v -> v.getUsername().equals(username) && v.getPassword().equals(password))
-                                          .findFirst();
-        return voterOptional.orElse(null);
+        try {
+            return authenticateVoterAsync(username, password).get(VERIFY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Password verification unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Verifies the password on the hasher's worker pool. Legacy plain-text
+     * or outdated hashes are upgraded after a successful check.
+     */
+    public CompletableFuture<Voter> authenticateVoterAsync(String username, String password) {
+        Voter voter = voters.findByUsername(username);
+        if (voter == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String stored = voter.getPassword();
+        return passwordHasher.verifyAsync(username, password, stored).thenApply(ok -> {
+            if (!ok) {
+                return null;
+            }
+            if (passwordHasher.needsRehash(stored)) {
+                voter.setPassword(passwordHasher.hash(password));
+            }
+            return voter;
+        });
     }
 
     public Voter login(String username, String password) {
-        Optional<Voter> voterOptional = voters.stream()
-                                          .filter(v -> v.getUsername().equals(username) && v.getPassword().equals(password))
-                                          .findFirst();
-        if (voterOptional.isPresent()) {
-            Voter voter = voterOptional.get();
+        return await(loginAsync(username, password, null), "Login");
+    }
+
+    /**
+     * Checks the password and then the voter's face, completing with the
+     * logged-in voter or null. Admins without face data are let in on
+     * their password alone. With a preview the live preview scan settings
+     * are used, otherwise the console ones. Cancelling the future, or
+     * completing it with orTimeout, interrupts a scan in progress.
+     */
+    public CompletableFuture<Voter> loginAsync(String username, String password,
+                                               javafx.scene.image.ImageView preview) {
+        return chain(authenticateVoterAsync(username, password), voter -> {
+            if (voter == null) {
+                System.out.println("Login failed: Invalid username or password.");
+                return CompletableFuture.completedFuture(null);
+            }
             // For admin voters, check if face data exists. If not, allow login without face verification.
             // If face data exists, then require face verification.
-            if (voter.isAdmin()) {
-                if (faceRecognitionService.hasFaceData(voter.getNationalId())) {
-                    System.out.println("\nFace verification required for admin login...");
-                    if (!faceRecognitionService.verifyFace(voter.getNationalId())) {
-                        System.out.println("Login failed: Face verification unsuccessful for admin.");
-                        return null;
-                    }
-                } else {
-                    System.out.println("Admin login successful (no face data registered yet): " + username);
+            if (voter.isAdmin() && !faceRecognitionService.hasFaceData(voter.getNationalId())) {
+                System.out.println("Admin login successful (no face data registered yet): " + username);
+                currentVoter = voter;
+                return CompletableFuture.completedFuture(voter);
+            }
+            System.out.println(voter.isAdmin() ? "\nFace verification required for admin login..."
+                                               : "\nFace verification required for voter login...");
+            return chain(verifyVoterAsync(voter, preview), verified -> {
+                if (verified == null) {
+                    System.out.println(voter.isAdmin() ? "Login failed: Face verification unsuccessful for admin."
+                                                       : "Login failed: Face verification unsuccessful.");
+                    return CompletableFuture.completedFuture(null);
                 }
-            } else {
-                System.out.println("\nFace verification required for voter login...");
-                if (!faceRecognitionService.verifyFace(voter.getNationalId())) {
-                    System.out.println("Login failed: Face verification unsuccessful.");
-                    return null;
+                currentVoter = voter;
+                System.out.println("Login successful: " + username);
+                return CompletableFuture.completedFuture(voter);
+            });
+        });
+    }
+
+    /**
+     * Verifies that the person at the camera is voter, e.g. before a vote
+     * is cast, completing with the voter or null. Busy or timed-out booths
+     * complete the future exceptionally.
+     */
+    public CompletableFuture<Voter> verifyVoterAsync(Voter voter, javafx.scene.image.ImageView preview) {
+        CompletableFuture<Boolean> scan = boothService.verify(voter.getNationalId(),
+                faceRecognitionService.getCameraSession(), scanOptions(preview), preview);
+        return chain(scan, verified -> CompletableFuture.completedFuture(verified ? voter : null));
+    }
+
+    private FaceScanOptions scanOptions(javafx.scene.image.ImageView preview) {
+        return preview != null ? faceRecognitionService.getPreviewScanOptions()
+                               : faceRecognitionService.getConsoleScanOptions();
+    }
+
+    /**
+     * Like first.thenCompose(next), except that when the returned future is
+     * cancelled or completed exceptionally, e.g. by orTimeout, the stage
+     * still running is cancelled too, which interrupts a face scan.
+     */
+    private static <T, U> CompletableFuture<U> chain(CompletableFuture<T> first,
+                                                     Function<T, CompletableFuture<U>> next) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> running = new AtomicReference<>(first);
+        first.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+                return;
+            }
+            CompletableFuture<U> second;
+            try {
+                second = next.apply(value);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            running.set(second);
+            if (result.isDone()) {
+                second.cancel(true);
+            }
+            second.whenComplete((nextValue, nextError) -> {
+                if (nextError != null) {
+                    result.completeExceptionally(unwrap(nextError));
+                } else {
+                    result.complete(nextValue);
                 }
+            });
+        });
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                running.get().cancel(true);
             }
-            currentVoter = voter;
-            System.out.println("Login successful: " + username);
-            return currentVoter;
-        } else {
-            System.out.println("Login failed: Invalid username or password.");
+        });
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Blocking front ends wait here; giving up cancels the pending scan
+    private static <T> T await(CompletableFuture<T> future, String action) {
+        try {
+            return future.get(FACE_LOGIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.err.println(action + " timed out.");
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println(action + " unavailable: " + e.getCause().getMessage());
             return null;
         }
     }
@@ -99,16 +269,68 @@ public class AuthService {
         return currentVoter;
     }
 
-    public List<Voter> getAllVoters() {
-        return new ArrayList<>(voters);
+    /**
+     * Runs action on a read-only view of the voter roll without copying it.
+     * Registration waits until action returns.
+     */
+    public <T> T withAllVoters(Function<Collection<Voter>, T> action) {
+        return voters.withAll(action);
+    }
+
+    public void forEachVoter(Consumer<Voter> action) {
+        voters.forEach(action);
+    }
+
+    public boolean anyVoterMatches(Predicate<Voter> predicate) {
+        return voters.anyMatch(predicate);
+    }
+
+    public List<Voter> getVoters(int offset, int limit) {
+        return voters.getPage(offset, limit);
+    }
+
+    public FaceRecognitionService getFaceRecognitionService() {
+        return faceRecognitionService;
+    }
+
+    public BoothVerificationService getBoothVerificationService() {
+        return boothService;
+    }
+
+    public PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+
+    public int getVoterCount() {
+        return voters.size();
+    }
+
+    public Voter findVoterByNationalId(String nationalId) {
+        return voters.findByNationalId(nationalId);
+    }
+
+    /**
+     * Bulk-imports a CSV voter roll, optionally writing rejected rows to
+     * rejectsFile.
+     */
+    public VoterImporter.Result importVoters(Path source, Path rejectsFile) throws IOException {
+        return new VoterImporter(voters, passwordHasher).importFile(source, rejectsFile);
+    }
+
+    /**
+     * Bulk-enrolls faces of registered voters from a directory or zip of
+     * photos named by national ID, optionally writing failures to
+     * failuresFile.
+     */
+    public FaceEnroller.Result enrollFaces(Path source, Path failuresFile) throws IOException {
+        FaceEnroller enroller = new FaceEnroller(faceRecognitionService,
+                nationalId -> voters.findByNationalId(nationalId) != null, true, FaceEnroller.DEFAULT_CHUNK_SIZE);
+        return enroller.enroll(source, failuresFile);
     }
 
     public boolean deleteVoter(String username) {
-        Optional<Voter> voterToDelete = voters.stream()
-                                          .filter(v -> v.getUsername().equals(username))
-                                          .findFirst();
-        if (voterToDelete.isPresent()) {
-            voters.remove(voterToDelete.get());
+        if (voters.remove(username) != null) {
+            passwordHasher.invalidate(username);
             System.out.println("Voter " + username + " deleted successfully.");
             return true;
         } else {
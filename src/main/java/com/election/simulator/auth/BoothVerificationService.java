@@ -0,0 +1,300 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.auth.face.CameraSession;
+import com.election.simulator.auth.face.FaceScanOptions;
+import javafx.scene.image.ImageView;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs face captures and verifications for several polling booths at once.
+ *
+ * Each booth scans its own CameraSession. Requests run on virtual threads
+ * where the JVM has them, otherwise on a fixed pool of workers, so a
+ * request waiting for its turn never holds a platform thread of its own.
+ * Either way at most maxConcurrentScans scans run at once, by default one
+ * per core: face detection is CPU-bound and a frame grab blocks its
+ * carrier thread in native code, so only the waiting is left to virtual
+ * threads. At most maxPending requests are accepted at a time; beyond
+ * that a request fails straight away with RejectedExecutionException, so
+ * a crowded station gets backpressure instead of ever-growing waits. Every
+ * request has a deadline covering both queueing and scanning: at the
+ * deadline it completes with TimeoutException and a scan still in progress
+ * is interrupted. Cancelling the returned future interrupts the scan as
+ * well.
+ * Each scan borrows a cascade classifier of its own from
+ * FaceRecognitionService, so scans never share detector state.
+ */
+public class BoothVerificationService implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "booth-verification-timeout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final FaceRecognitionService faceService;
+    private final ExecutorService workers;
+    private final int maxPending;
+    private final Semaphore scanPermits;
+    private final int maxConcurrentScans;
+    private final long timeoutMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder scanNanos = new LongAdder();
+
+    /**
+     * Uses virtual threads when available, otherwise one worker per core,
+     * and runs one scan per core at a time.
+     */
+    public BoothVerificationService(FaceRecognitionService faceService) {
+        this(faceService, defaultExecutor(), Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() + DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Uses a fixed pool of workerCount platform threads, with queueCapacity
+     * requests waiting.
+     */
+    public BoothVerificationService(FaceRecognitionService faceService, int workerCount, int queueCapacity,
+                                    long timeoutMillis) {
+        this(faceService, newWorkerPool(workerCount, queueCapacity), workerCount, workerCount + queueCapacity,
+                timeoutMillis);
+    }
+
+    /**
+     * Runs requests on executor, which is shut down by close(), with at most
+     * maxConcurrentScans scanning at once.
+     */
+    public BoothVerificationService(FaceRecognitionService faceService, ExecutorService executor,
+                                    int maxConcurrentScans, int maxPending, long timeoutMillis) {
+        if (maxConcurrentScans < 1) {
+            throw new IllegalArgumentException("Concurrent scan limit must be positive");
+        }
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Pending request limit must be positive");
+        }
+        this.faceService = faceService;
+        this.workers = executor;
+        this.maxConcurrentScans = maxConcurrentScans;
+        this.scanPermits = new Semaphore(maxConcurrentScans, true);
+        this.maxPending = maxPending;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor on JVMs that support it
+     * (Java 21 and later), or null.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static ExecutorService newWorkerPool(int workerCount, int queueCapacity) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        return new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "booth-verify-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    private static ExecutorService defaultExecutor() {
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        return virtualThreads != null ? virtualThreads
+                : newWorkerPool(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public FaceRecognitionService getFaceService() {
+        return faceService;
+    }
+
+    /**
+     * Verifies nationalId at the station's default camera with the live
+     * preview settings.
+     */
+    public CompletableFuture<Boolean> verify(String nationalId, ImageView preview) {
+        return verify(nationalId, faceService.getCameraSession(), faceService.getPreviewScanOptions(), preview);
+    }
+
+    public CompletableFuture<Boolean> verify(String nationalId, CameraSession booth, FaceScanOptions options,
+                                             ImageView preview) {
+        return submit(() -> faceService.verifyFace(nationalId, booth, options, preview));
+    }
+
+    /**
+     * Captures and stores the face of nationalId at the station's default
+     * camera with the live preview settings.
+     */
+    public CompletableFuture<Boolean> enroll(String nationalId, ImageView preview) {
+        return enroll(nationalId, faceService.getCameraSession(), faceService.getPreviewScanOptions(), preview);
+    }
+
+    public CompletableFuture<Boolean> enroll(String nationalId, CameraSession booth, FaceScanOptions options,
+                                             ImageView preview) {
+        return submit(() -> faceService.captureAndStoreFace(nationalId, booth, options, preview));
+    }
+
+    private CompletableFuture<Boolean> submit(BooleanSupplier scan) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("More than " + maxPending + " face scans pending"));
+        }
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        result.whenComplete((ok, error) -> pending.decrementAndGet());
+        Future<?> task;
+        try {
+            task = workers.submit(() -> {
+                try {
+                    // Waiting here unmounts a virtual thread; only scans hold a carrier
+                    scanPermits.acquire();
+                } catch (InterruptedException e) {
+                    // Timed out or cancelled before a scan slot came free
+                    return;
+                }
+                if (result.isDone()) {
+                    scanPermits.release();
+                    return;
+                }
+                long startedAt = System.nanoTime();
+                started.increment();
+                queueNanos.add(startedAt - queuedAt);
+                try {
+                    boolean ok = scan.getAsBoolean();
+                    // A request that already timed out keeps its TimeoutException
+                    if (result.complete(ok)) {
+                        (ok ? accepted : denied).increment();
+                    }
+                } catch (RuntimeException e) {
+                    if (result.completeExceptionally(e)) {
+                        failed.increment();
+                    }
+                } finally {
+                    scanNanos.add(System.nanoTime() - startedAt);
+                    scanPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+            return result;
+        }
+        submitted.increment();
+
+        ScheduledFuture<?> timeout = TIMEOUTS.schedule(() -> {
+            if (result.completeExceptionally(new TimeoutException("Face scan not finished within " + timeoutMillis + " ms"))) {
+                timedOut.increment();
+                task.cancel(true);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        result.whenComplete((ok, error) -> {
+            timeout.cancel(false);
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Metrics
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getDeniedCount() {
+        return denied.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public double getAverageQueueMillis() {
+        long count = started.sum();
+        return count == 0 ? 0 : queueNanos.sum() / 1e6 / count;
+    }
+
+    public double getAverageScanMillis() {
+        long count = started.sum();
+        return count == 0 ? 0 : scanNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * Requests accepted and not yet finished, whether queued or scanning.
+     */
+    public int getPendingRequests() {
+        return pending.get();
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public int getMaxConcurrentScans() {
+        return maxConcurrentScans;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d submitted, %d accepted, %d denied, %d timed out, %d failed, %d rejected; "
+                        + "%d of %d pending; avg queue %.0f ms, avg scan %.0f ms",
+                getSubmittedCount(), getAcceptedCount(), getDeniedCount(), getTimedOutCount(), getFailedCount(),
+                getRejectedCount(), getPendingRequests(), maxPending, getAverageQueueMillis(),
+                getAverageScanMillis());
+    }
+
+    /**
+     * Interrupts running scans and drops queued ones.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
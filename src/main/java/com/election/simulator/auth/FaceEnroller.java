@@ -0,0 +1,266 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.auth.face.FaceFrameProcessor;
+import com.election.simulator.auth.face.ImageDirectoryFrameSource;
+import com.election.simulator.auth.face.LbpFaceMatcher;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Enrolls faces in bulk from voter photos instead of a live camera.
+ *
+ * The source is a directory (searched recursively) or a zip archive of
+ * images named after the voter's national ID, e.g. 12345678901.jpg. Photos
+ * are taken in fixed-size chunks, so memory stays constant however many
+ * there are. Each chunk is decoded, detected and normalized in parallel,
+ * with one face processor per worker thread, and stored through
+ * FaceRecognitionService like a camera capture. Voters who already have a
+ * face template are skipped, so an interrupted run can simply be started
+ * again. Photos that fail are written to a report with the reason.
+ *
+ * The duplicate-face check searches the face index for every photo; it
+ * can be turned off for a first bulk load into an empty store. Duplicates
+ * between photos of the same chunk are not detected.
+ */
+public class FaceEnroller {
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    private static final String SKIPPED = "already enrolled";
+
+    private final FaceRecognitionService faceService;
+    private final Predicate<String> knownVoter;
+    private final boolean checkDuplicates;
+    private final int chunkSize;
+    private final LbpFaceMatcher faceMatcher = new LbpFaceMatcher();
+
+    /**
+     * Counts and timing of a finished enrollment run.
+     */
+    public static class Result {
+        private final long photosRead;
+        private final long enrolled;
+        private final long skipped;
+        private final long failed;
+        private final long elapsedMillis;
+
+        Result(long photosRead, long enrolled, long skipped, long failed, long elapsedMillis) {
+            this.photosRead = photosRead;
+            this.enrolled = enrolled;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getPhotosRead() {
+            return photosRead;
+        }
+
+        public long getEnrolled() {
+            return enrolled;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getPhotosPerSecond() {
+            return elapsedMillis == 0 ? photosRead : photosRead * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d photos read, %d enrolled, %d already enrolled, %d failed in %.1f s (%.0f photos/s)",
+                    photosRead, enrolled, skipped, failed, elapsedMillis / 1000.0, getPhotosPerSecond());
+        }
+    }
+
+    public FaceEnroller(FaceRecognitionService faceService) {
+        this(faceService, nationalId -> true, true, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * knownVoter decides which national IDs may be enrolled; photos of
+     * anyone else are reported as failures.
+     */
+    public FaceEnroller(FaceRecognitionService faceService, Predicate<String> knownVoter, boolean checkDuplicates,
+                        int chunkSize) {
+        this.faceService = faceService;
+        this.knownVoter = knownVoter;
+        this.checkDuplicates = checkDuplicates;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Enrolls every photo in source, a directory or .zip file. When
+     * failuresFile is not null every failed photo is written there as
+     * photo,reason.
+     */
+    public Result enroll(Path source, Path failuresFile) throws IOException {
+        if (Files.isRegularFile(source) && source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip")) {
+            try (FileSystem zip = FileSystems.newFileSystem(source, (ClassLoader) null)) {
+                return enrollTree(zip.getRootDirectories().iterator().next(), failuresFile);
+            }
+        }
+        if (!Files.isDirectory(source)) {
+            throw new IOException("Photo source must be a directory or zip file: " + source);
+        }
+        return enrollTree(source, failuresFile);
+    }
+
+    private Result enrollTree(Path root, Path failuresFile) throws IOException {
+        long start = System.currentTimeMillis();
+        long photosRead = 0;
+        long enrolled = 0;
+        long skipped = 0;
+        long failed = 0;
+
+        // One processor per worker thread, all closed at the end of the run
+        Queue<FaceFrameProcessor> processors = new ConcurrentLinkedQueue<>();
+        ThreadLocal<FaceFrameProcessor> workerProcessor = ThreadLocal.withInitial(() -> {
+            FaceFrameProcessor processor = faceService.createFrameProcessor();
+            processors.add(processor);
+            return processor;
+        });
+
+        BufferedWriter failures = null;
+        try (Stream<Path> files = Files.walk(root)) {
+            if (failuresFile != null) {
+                Path parent = failuresFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                failures = Files.newBufferedWriter(failuresFile, StandardCharsets.UTF_8);
+            }
+
+            Iterator<Path> photos = files.filter(FaceEnroller::isPhoto).iterator();
+            List<Path> chunk = new ArrayList<>(chunkSize);
+            String[] outcomes = new String[chunkSize];
+            while (photos.hasNext()) {
+                chunk.clear();
+                while (chunk.size() < chunkSize && photos.hasNext()) {
+                    chunk.add(photos.next());
+                }
+                photosRead += chunk.size();
+
+                IntStream.range(0, chunk.size()).parallel()
+                        .forEach(i -> outcomes[i] = enrollPhoto(chunk.get(i), workerProcessor.get()));
+                // A restarted run resumes after the last flushed chunk
+                faceService.flushFaceTemplates();
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (outcomes[i] == null) {
+                        enrolled++;
+                    } else if (outcomes[i] == SKIPPED) {
+                        skipped++;
+                    } else {
+                        failed++;
+                        writeFailure(failures, chunk.get(i), outcomes[i]);
+                    }
+                }
+                System.out.printf("Face enrollment: %d photos processed, %d enrolled, %d failed%n",
+                        photosRead, enrolled, failed);
+            }
+        } finally {
+            if (failures != null) {
+                failures.close();
+            }
+            processors.forEach(faceService::releaseFrameProcessor);
+        }
+        return new Result(photosRead, enrolled, skipped, failed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns null when the photo was enrolled, SKIPPED, or the reason it
+     * failed.
+     */
+    private String enrollPhoto(Path photo, FaceFrameProcessor processor) {
+        String nationalId = nationalIdOf(photo);
+        if (nationalId.isEmpty()) {
+            return "no national ID in file name";
+        }
+        if (!knownVoter.test(nationalId)) {
+            return "no registered voter with this national ID";
+        }
+        if (faceService.hasFaceData(nationalId)) {
+            return SKIPPED;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(photo);
+            // Photos are unrelated, so never track a face from the previous one
+            processor.getDetector().reset();
+            try (BytePointer buffer = new BytePointer(bytes);
+                 Mat encoded = new Mat(1, bytes.length, opencv_core.CV_8UC1, buffer);
+                 Mat image = opencv_imgcodecs.imdecode(encoded, opencv_imgcodecs.IMREAD_COLOR)) {
+                if (image.empty()) {
+                    return "unreadable image";
+                }
+                Mat normalizedFace = processor.process(image);
+                if (normalizedFace == null) {
+                    return "no face detected";
+                }
+                float[] descriptor = faceMatcher.describe(normalizedFace);
+                if (checkDuplicates) {
+                    String enrolledAs = faceService.findEnrolledFace(descriptor, nationalId);
+                    if (enrolledAs != null) {
+                        return "face already enrolled as " + enrolledAs;
+                    }
+                }
+                if (!faceService.storeFaceTemplate(nationalId, normalizedFace, descriptor)) {
+                    return "could not save face template";
+                }
+                return null;
+            }
+        } catch (IOException e) {
+            return "read error: " + e.getMessage();
+        } catch (RuntimeException e) {
+            return "processing error: " + e.getMessage();
+        }
+    }
+
+    private static boolean isPhoto(Path file) {
+        return Files.isRegularFile(file) && ImageDirectoryFrameSource.isImage(file);
+    }
+
+    private static String nationalIdOf(Path photo) {
+        String name = photo.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot < 0 ? name : name.substring(0, dot)).trim();
+    }
+
+    private static void writeFailure(BufferedWriter failures, Path photo, String reason) throws IOException {
+        if (failures == null) {
+            return;
+        }
+        failures.write(photo.toString());
+        failures.write(',');
+        failures.write(reason);
+        failures.newLine();
+    }
+}
@@ -0,0 +1,41 @@
+package com.election.simulator.auth;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Headless bulk face enrollment, e.g. for an overnight load of voter
+ * photos. No camera is opened; templates are written to the face data
+ * directory and can be enrolled again safely, since voters who already
+ * have a template are skipped.
+ *
+ * Usage: FaceEnrollmentJob <photo directory or zip> [failures file] [--no-duplicate-check]
+ */
+public class FaceEnrollmentJob {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: FaceEnrollmentJob <photo directory or zip> [failures file] [--no-duplicate-check]");
+            System.exit(1);
+        }
+        Path source = Paths.get(args[0]);
+        Path failures = null;
+        boolean checkDuplicates = true;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--no-duplicate-check")) {
+                checkDuplicates = false;
+            } else {
+                failures = Paths.get(args[i]);
+            }
+        }
+
+        FaceRecognitionService faceService = new FaceRecognitionService();
+        FaceEnroller enroller = new FaceEnroller(faceService, nationalId -> true, checkDuplicates,
+                FaceEnroller.DEFAULT_CHUNK_SIZE);
+        System.out.println("Enrolling faces from " + source + " on "
+                + Runtime.getRuntime().availableProcessors() + " cores");
+        FaceEnroller.Result result = enroller.enroll(source, failures);
+        System.out.println("Face enrollment finished: " + result);
+        System.out.println("Face index: " + faceService.getFaceIndex().size() + " enrolled faces");
+    }
+}
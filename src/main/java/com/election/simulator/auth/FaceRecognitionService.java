@@ -1,414 +1,447 @@
 package com.election.simulator.auth;
 
+import com.election.simulator.auth.face.CameraSession;
+import com.election.simulator.auth.face.FaceFrameProcessor;
+import com.election.simulator.auth.face.FaceIndex;
+import com.election.simulator.auth.face.FaceScanOptions;
+import com.election.simulator.auth.face.FaceTemplateCache;
+import com.election.simulator.auth.face.FaceTemplateStore;
+import com.election.simulator.auth.face.FramePreview;
+import com.election.simulator.auth.face.FrameSource;
+import com.election.simulator.auth.face.GrabberFrameSource;
+import com.election.simulator.auth.face.ImageDirectoryFrameSource;
+import com.election.simulator.auth.face.LbpFaceMatcher;
+
 import org.bytedeco.opencv.opencv_core.Mat;
-import org.bytedeco.opencv.opencv_core.Rect;
-import org.bytedeco.opencv.opencv_core.RectVector;
-import org.bytedeco.opencv.opencv_core.Size;
 import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
-import org.bytedeco.opencv.global.opencv_imgproc;
-import org.bytedeco.javacv.Frame;
-import org.bytedeco.javacv.FrameGrabber;
-import org.bytedeco.javacv.OpenCVFrameConverter;
-import org.bytedeco.javacv.OpenCVFrameGrabber;
-import javafx.embed.swing.SwingFXUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class FaceRecognitionService {
-    private CascadeClassifier faceDetector;
-    private static final String HAARCASCADE_PATH = "src/main/resources/haarcascades/haarcascade_frontalface_alt.xml";
+    // CascadeClassifier is not thread-safe, so each scan borrows one of its own
+    private final Queue<CascadeClassifier> idleFaceDetectors = new ConcurrentLinkedQueue<>();
+    public static final String HAARCASCADE_PATH = "src/main/resources/haarcascades/haarcascade_frontalface_alt.xml";
     private static final String FACE_DATA_DIR = "face_data/";
-    private Map<String, Mat> storedFaceEncodings;
-    private OpenCVFrameConverter.ToMat converter;
+    public static final String FACE_TEMPLATE_FILE = FACE_DATA_DIR + "face_templates.bin";
+    // Shared by every service in the process, which must all see the same records
+    private static FaceTemplateStore sharedTemplateStore;
+    // Set to an image file or directory to replace the webcam, e.g. for headless runs
+    public static final String FRAME_SOURCE_PROPERTY = "election.frameSource";
+    public static final long DEFAULT_DESCRIPTOR_CACHE_BYTES = 64L << 20;
+    // Enrolled LBP descriptors used for verification
+    private final FaceTemplateCache<String, float[]> storedFaceDescriptors;
+    private final LbpFaceMatcher faceMatcher = new LbpFaceMatcher();
+    private final FaceIndex faceIndex = new FaceIndex();
+    private final FaceTemplateStore templateStore;
+    // Index candidates re-checked with the exact matcher before enrollment
+    private static final int DUPLICATE_CANDIDATES = 5;
+    private static final long MIN_FRAME_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final CameraSession cameraSession;
+    private FaceScanOptions consoleScanOptions = FaceScanOptions.console();
+    private FaceScanOptions previewScanOptions = FaceScanOptions.livePreview();
 
     public FaceRecognitionService() {
-        // Initialize face detector
+        this(new CameraSession(FaceRecognitionService::defaultFrameSource));
+    }
+
+    public FaceRecognitionService(CameraSession cameraSession) {
+        this(cameraSession, DEFAULT_DESCRIPTOR_CACHE_BYTES);
+    }
+
+    public FaceRecognitionService(CameraSession cameraSession, long descriptorCacheBytes) {
+        this.cameraSession = cameraSession;
+        this.storedFaceDescriptors = new FaceTemplateCache<>(descriptorCacheBytes,
+                descriptor -> 16L + 4L * descriptor.length, descriptor -> { });
+
+        // Face detectors are loaded on demand and reused between scans
         if (!Files.exists(Paths.get(HAARCASCADE_PATH))) {
             System.err.println("Haarcascade file not found at: " + HAARCASCADE_PATH);
         }
-        faceDetector = new CascadeClassifier(HAARCASCADE_PATH);
-        if (faceDetector.empty()) {
-            System.err.println("Error loading cascade classifier. Check path and file integrity.");
-        }
-        
-        // Initialize storage
-        storedFaceEncodings = new HashMap<>();
-        converter = new OpenCVFrameConverter.ToMat();
         
         // Create face data directory
         new File(FACE_DATA_DIR).mkdirs();
+        templateStore = openTemplateStore();
+        loadFaceIndex();
     }
 
-    public boolean captureAndStoreFace(String nationalId) {
-        System.out.println("\n--- Real Face Capture ---");
-        System.out.println("Starting camera for face capture for National ID: " + nationalId);
-        
-        FrameGrabber grabber = null;
-        try {
-            // Initialize camera
-            grabber = new OpenCVFrameGrabber(0); // Use default camera
-            grabber.start();
-            
-            System.out.println("Camera started. Please look at the camera...");
-            
-            // Capture frames and detect face
-            for (int i = 0; i < 30; i++) { // Try for 30 frames
-                Frame frame = grabber.grab();
-                if (frame == null) continue;
-                
-                Mat image = converter.convert(frame);
-                if (image == null) continue;
-                
-                // Detect face
-                Mat grayImage = new Mat();
-                opencv_imgproc.cvtColor(image, grayImage, opencv_imgproc.COLOR_BGR2GRAY);
-                opencv_imgproc.equalizeHist(grayImage, grayImage);
-                
-                RectVector faces = new RectVector();
-                faceDetector.detectMultiScale(grayImage, faces);
-                
-                if (faces.size() > 0) {
-                    // Face detected, extract and store
-                    Rect faceRect = faces.get(0);
-                    Mat faceROI = new Mat(grayImage, faceRect);
-                    
-                    // Resize face to standard size for comparison
-                    Mat normalizedFace = new Mat();
-                    opencv_imgproc.resize(faceROI, normalizedFace, new Size(100, 100));
-                    
-                    // Store face encoding
-                    storedFaceEncodings.put(nationalId, normalizedFace.clone());
-                    
-                    // Save face image to file
-                    String faceImagePath = FACE_DATA_DIR + nationalId + "_face.jpg";
-                    opencv_imgcodecs.imwrite(faceImagePath, normalizedFace);
-                    
-                    System.out.println("Face captured and stored successfully for " + nationalId);
-                    grabber.stop();
-                    return true;
-                }
-                
-                // Wait a bit before next frame
-                Thread.sleep(100);
+    private static synchronized FaceTemplateStore openTemplateStore() {
+        if (sharedTemplateStore == null) {
+            try {
+                sharedTemplateStore = FaceTemplateStore.open(Paths.get(FACE_TEMPLATE_FILE));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open face template store " + FACE_TEMPLATE_FILE, e);
             }
-            
-            System.out.println("No face detected. Please ensure you are facing the camera.");
-            grabber.stop();
-            return false;
-            
-        } catch (Exception e) {
-            System.err.println("Error during face capture: " + e.getMessage());
-            if (grabber != null) {
-                try {
-                    grabber.stop();
-                } catch (Exception ex) {
-                    // Ignore
-                }
-            }
-            return false;
+            migrateLegacyTemplates(sharedTemplateStore);
         }
+        return sharedTemplateStore;
     }
 
-    public boolean verifyFace(String nationalId) {
-        System.out.println("\n--- Real Face Verification ---");
-        System.out.println("Starting camera for face verification for National ID: " + nationalId);
-        
-        // Check if we have stored face data
-        if (!storedFaceEncodings.containsKey(nationalId)) {
-            // Try to load from file
-            String faceImagePath = FACE_DATA_DIR + nationalId + "_face.jpg";
-            if (Files.exists(Paths.get(faceImagePath))) {
-                Mat storedFace = opencv_imgcodecs.imread(faceImagePath, opencv_imgcodecs.IMREAD_GRAYSCALE);
-                storedFaceEncodings.put(nationalId, storedFace);
-            } else {
-                System.out.println("No stored face data found for " + nationalId);
-                return false;
-            }
-        }
-        
-        FrameGrabber grabber = null;
-        try {
-            // Initialize camera
-            grabber = new OpenCVFrameGrabber(0);
-            grabber.start();
-            
-            System.out.println("Camera started. Please look at the camera for verification...");
-            
-            // Capture frames and verify face
-            for (int i = 0; i < 30; i++) { // Try for 30 frames
-                Frame frame = grabber.grab();
-                if (frame == null) continue;
-                
-                Mat image = converter.convert(frame);
-                if (image == null) continue;
-                
-                // Detect face
-                Mat grayImage = new Mat();
-                opencv_imgproc.cvtColor(image, grayImage, opencv_imgproc.COLOR_BGR2GRAY);
-                opencv_imgproc.equalizeHist(grayImage, grayImage);
-                
-                RectVector faces = new RectVector();
-                faceDetector.detectMultiScale(grayImage, faces);
-                
-                if (faces.size() > 0) {
-                    // Face detected, extract and compare
-                    Rect faceRect = faces.get(0);
-                    Mat faceROI = new Mat(grayImage, faceRect);
-                    
-                    // Resize face to standard size for comparison
-                    Mat normalizedFace = new Mat();
-                    opencv_imgproc.resize(faceROI, normalizedFace, new Size(100, 100));
-                    
-                    // Compare with stored face
-                    Mat storedFace = storedFaceEncodings.get(nationalId);
-                    double similarity = compareFaces(normalizedFace, storedFace);
-                    
-                    System.out.println("Face similarity: " + similarity);
-                    
-                    // Threshold for face match (adjust as needed)
-                    if (similarity > 0.7) {
-                        System.out.println("Face verification successful for " + nationalId);
-                        grabber.stop();
-                        return true;
-                    }
+    /**
+     * Copies voters enrolled as separate face_data/<id>_face.jpg (and .lbp)
+     * files into the template store. The old files are left in place.
+     */
+    private static void migrateLegacyTemplates(FaceTemplateStore store) {
+        LbpFaceMatcher matcher = new LbpFaceMatcher();
+        int migrated = 0;
+        try (Stream<Path> files = Files.list(Paths.get(FACE_DATA_DIR))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith("_face.jpg")) {
+                    continue;
                 }
-                
-                // Wait a bit before next frame
-                Thread.sleep(100);
-            }
-            
-            System.out.println("Face verification failed for " + nationalId);
-            grabber.stop();
-            return false;
-            
-        } catch (Exception e) {
-            System.err.println("Error during face verification: " + e.getMessage());
-            if (grabber != null) {
-                try {
-                    grabber.stop();
-                } catch (Exception ex) {
-                    // Ignore
+                String nationalId = name.substring(0, name.length() - "_face.jpg".length());
+                if (store.contains(nationalId)) {
+                    continue;
+                }
+                try (Mat face = opencv_imgcodecs.imread(file.toString(), opencv_imgcodecs.IMREAD_GRAYSCALE)) {
+                    if (face.empty() || face.cols() != FaceFrameProcessor.FACE_SIZE
+                            || face.rows() != FaceFrameProcessor.FACE_SIZE) {
+                        System.err.println("Skipping unreadable face image " + file);
+                        continue;
+                    }
+                    Path descriptorPath = Paths.get(FACE_DATA_DIR + nationalId + "_face.lbp");
+                    float[] descriptor = Files.exists(descriptorPath)
+                            ? LbpFaceMatcher.read(descriptorPath) : matcher.describe(face);
+                    byte[] pixels = new byte[FaceTemplateStore.FACE_BYTES];
+                    face.data().get(pixels);
+                    store.put(nationalId, pixels, descriptor);
+                    migrated++;
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Skipping face data for " + nationalId + ": " + e.getMessage());
                 }
             }
-            return false;
+        } catch (IOException e) {
+            System.err.println("Error migrating face data: " + e.getMessage());
+        }
+        if (migrated > 0) {
+            store.flush();
+            System.out.println("Migrated " + migrated + " face templates into " + FACE_TEMPLATE_FILE);
         }
     }
-    
-    private double compareFaces(Mat face1, Mat face2) {
-        try {
-            // Simple template matching for face comparison
-            Mat result = new Mat();
-            opencv_imgproc.matchTemplate(face1, face2, result, opencv_imgproc.TM_CCOEFF_NORMED);
-            
-            // For simplicity, we'll use a basic correlation approach
-            // In a real system, you'd use more sophisticated face recognition algorithms
-            double similarity = 0.8; // Simulate high similarity for demo
-            return similarity;
-        } catch (Exception e) {
-            System.err.println("Error comparing faces: " + e.getMessage());
-            return 0.0;
+
+    // Indexes every enrolled descriptor for duplicate-face checks
+    private void loadFaceIndex() {
+        templateStore.forEachDescriptor(faceIndex::add);
+        System.out.println("Face index loaded: " + faceIndex.size() + " enrolled faces.");
+    }
+
+    private static CascadeClassifier loadFaceDetector() {
+        CascadeClassifier classifier = new CascadeClassifier(HAARCASCADE_PATH);
+        if (classifier.empty()) {
+            System.err.println("Error loading cascade classifier. Check path and file integrity.");
+        }
+        return classifier;
+    }
+
+    private static FrameSource defaultFrameSource() {
+        String path = System.getProperty(FRAME_SOURCE_PROPERTY);
+        if (path != null && !path.isEmpty()) {
+            return new ImageDirectoryFrameSource(Paths.get(path), true);
         }
+        return new GrabberFrameSource(0); // Use default camera
+    }
+
+    public CameraSession getCameraSession() {
+        return cameraSession;
+    }
+
+    public FaceIndex getFaceIndex() {
+        return faceIndex;
+    }
+
+    public FaceTemplateStore getTemplateStore() {
+        return templateStore;
+    }
+
+    public FaceTemplateCache<String, float[]> getDescriptorCache() {
+        return storedFaceDescriptors;
+    }
+
+    /**
+     * Loads the descriptors of voters expected at this station, e.g. at the
+     * start of a shift, until the descriptor cache budget is full. Returns
+     * how many are cached.
+     */
+    public int preloadFaceTemplates(Collection<String> nationalIds) {
+        int loaded = storedFaceDescriptors.preload(nationalIds, templateStore::readDescriptor);
+        System.out.println("Preloaded " + loaded + " of " + nationalIds.size() + " face templates: " + storedFaceDescriptors);
+        return loaded;
+    }
+
+    public FaceScanOptions getConsoleScanOptions() {
+        return consoleScanOptions;
+    }
+
+    public void setConsoleScanOptions(FaceScanOptions consoleScanOptions) {
+        this.consoleScanOptions = consoleScanOptions;
+    }
+
+    public FaceScanOptions getPreviewScanOptions() {
+        return previewScanOptions;
+    }
+
+    public void setPreviewScanOptions(FaceScanOptions previewScanOptions) {
+        this.previewScanOptions = previewScanOptions;
+    }
+
+    public boolean captureAndStoreFace(String nationalId) {
+        System.out.println("\n--- Real Face Capture ---");
+        System.out.println("Starting camera for face capture for National ID: " + nationalId);
+        return captureFace(nationalId, cameraSession, consoleScanOptions, null);
+    }
+
+    public boolean verifyFace(String nationalId) {
+        System.out.println("\n--- Real Face Verification ---");
+        System.out.println("Starting camera for face verification for National ID: " + nationalId);
+        return matchFace(nationalId, cameraSession, consoleScanOptions, null);
     }
     
     // Method to capture face with live stream display for JavaFX
     public boolean captureAndStoreFaceWithStream(String nationalId, javafx.scene.image.ImageView imageView) {
         System.out.println("\n--- Real Face Capture with Live Stream ---");
         System.out.println("Starting camera for face capture for National ID: " + nationalId);
-        
-        FrameGrabber grabber = null;
+        return captureFace(nationalId, cameraSession, previewScanOptions, imageView);
+    }
+    
+    // Method to verify face with live stream display for JavaFX
+    public boolean verifyFaceWithStream(String nationalId, javafx.scene.image.ImageView imageView) {
+        System.out.println("\n--- Real Face Verification with Live Stream ---");
+        System.out.println("Starting camera for face verification for National ID: " + nationalId);
+        return matchFace(nationalId, cameraSession, previewScanOptions, imageView);
+    }
+
+    /**
+     * Captures and stores a face from the given booth camera; imageView may
+     * be null. Safe to call from several threads at once, one per camera.
+     */
+    public boolean captureAndStoreFace(String nationalId, CameraSession camera, FaceScanOptions options,
+                                       javafx.scene.image.ImageView imageView) {
+        return captureFace(nationalId, camera, options, imageView);
+    }
+
+    /**
+     * Verifies a face from the given booth camera; imageView may be null.
+     * Safe to call from several threads at once, one per camera.
+     */
+    public boolean verifyFace(String nationalId, CameraSession camera, FaceScanOptions options,
+                              javafx.scene.image.ImageView imageView) {
+        return matchFace(nationalId, camera, options, imageView);
+    }
+
+    private boolean captureFace(String nationalId, CameraSession camera, FaceScanOptions options,
+                                javafx.scene.image.ImageView imageView) {
+        boolean[] duplicate = new boolean[1];
         try {
-            // Initialize camera
-            grabber = new OpenCVFrameGrabber(0); // Use default camera
-            grabber.start();
-            
-            System.out.println("Camera started. Please look at the camera...");
-            
-            // Capture frames and detect face
-            for (int i = 0; i < 100; i++) { // Try for 100 frames (about 10 seconds)
-                Frame frame = grabber.grab();
-                if (frame == null) continue;
-                
-                Mat image = converter.convert(frame);
-                if (image == null) continue;
-                
-                // Convert frame to JavaFX Image and display
-                javafx.scene.image.Image fxImage = matToJavaFXImage(image);
-                if (fxImage != null && imageView != null) {
-                    javafx.application.Platform.runLater(() -> imageView.setImage(fxImage));
-                }
-                
-                // Detect face
-                Mat grayImage = new Mat();
-                opencv_imgproc.cvtColor(image, grayImage, opencv_imgproc.COLOR_BGR2GRAY);
-                opencv_imgproc.equalizeHist(grayImage, grayImage);
-                
-                RectVector faces = new RectVector();
-                faceDetector.detectMultiScale(grayImage, faces);
-                
-                if (faces.size() > 0 && i > 30) { // Wait a bit before capturing
-                    // Face detected, extract and store
-                    Rect faceRect = faces.get(0);
-                    Mat faceROI = new Mat(grayImage, faceRect);
-                    
-                    // Resize face to standard size for comparison
-                    Mat normalizedFace = new Mat();
-                    opencv_imgproc.resize(faceROI, normalizedFace, new Size(100, 100));
-                    
-                    // Store face encoding
-                    storedFaceEncodings.put(nationalId, normalizedFace.clone());
-                    
-                    // Save face image to file
-                    String faceImagePath = FACE_DATA_DIR + nationalId + "_face.jpg";
-                    opencv_imgcodecs.imwrite(faceImagePath, normalizedFace);
-                    
-                    System.out.println("Face captured and stored successfully for " + nationalId);
-                    grabber.stop();
+            boolean captured = scanFrames("Please look at the camera...", camera, options, imageView, normalizedFace -> {
+                // Refuse a face that is already enrolled under another identity
+                float[] descriptor = faceMatcher.describe(normalizedFace);
+                String enrolledAs = findEnrolledFace(descriptor, nationalId);
+                if (enrolledAs != null) {
+                    System.err.println("Face for " + nationalId + " matches enrolled voter " + enrolledAs);
+                    duplicate[0] = true;
                     return true;
                 }
                 
-                // Wait a bit before next frame
-                Thread.sleep(100);
+                storeFaceTemplate(nationalId, normalizedFace, descriptor);
+                flushFaceTemplates();
+                System.out.println("Face captured and stored successfully for " + nationalId);
+                return true;
+            });
+            if (duplicate[0]) {
+                System.out.println("Face capture rejected: this face is already registered to another voter.");
+                return false;
             }
-            
-            System.out.println("No face detected. Please ensure you are facing the camera.");
-            grabber.stop();
+            if (!captured) {
+                System.out.println("No face detected. Please ensure you are facing the camera.");
+            }
+            return captured;
+        } catch (InterruptedException e) {
+            System.out.println("Face capture cancelled for " + nationalId);
+            Thread.currentThread().interrupt();
             return false;
-            
         } catch (Exception e) {
             System.err.println("Error during face capture: " + e.getMessage());
-            if (grabber != null) {
-                try {
-                    grabber.stop();
-                } catch (Exception ex) {
-                    // Ignore
-                }
-            }
             return false;
         }
     }
-    
-    // Method to verify face with live stream display for JavaFX
-    public boolean verifyFaceWithStream(String nationalId, javafx.scene.image.ImageView imageView) {
-        System.out.println("\n--- Real Face Verification with Live Stream ---");
-        System.out.println("Starting camera for face verification for National ID: " + nationalId);
+
+    /**
+     * Stores a normalized face and its descriptor as the enrolled template
+     * of nationalId: template store, descriptor cache and face index.
+     * Returns false when the template could not be stored. Call
+     * flushFaceTemplates() to make it durable.
+     */
+    public boolean storeFaceTemplate(String nationalId, Mat normalizedFace, float[] descriptor) {
+        byte[] pixels = new byte[FaceTemplateStore.FACE_BYTES];
+        if (normalizedFace.total() * normalizedFace.elemSize() != pixels.length || !normalizedFace.isContinuous()) {
+            System.err.println("Error saving face template for " + nationalId + ": face is not normalized");
+            return false;
+        }
+        normalizedFace.data().get(pixels);
+        try {
+            templateStore.put(nationalId, pixels, descriptor);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error saving face template for " + nationalId + ": " + e.getMessage());
+            return false;
+        }
         
+        storedFaceDescriptors.put(nationalId, descriptor);
+        faceIndex.add(nationalId, descriptor);
+        return true;
+    }
+
+    /**
+     * Writes stored face templates through to the disk.
+     */
+    public void flushFaceTemplates() {
+        templateStore.flush();
+    }
+
+    /**
+     * Creates a frame processor with a face detector of its own. It must be
+     * used by one thread at a time and handed back to
+     * releaseFrameProcessor() afterwards, which closes it.
+     */
+    public FaceFrameProcessor createFrameProcessor() {
+        CascadeClassifier classifier = idleFaceDetectors.poll();
+        return new FaceFrameProcessor(classifier != null ? classifier : loadFaceDetector());
+    }
+
+    public void releaseFrameProcessor(FaceFrameProcessor processor) {
+        CascadeClassifier classifier = processor.getDetector().getClassifier();
+        processor.close();
+        idleFaceDetectors.offer(classifier);
+    }
+
+    private boolean matchFace(String nationalId, CameraSession camera, FaceScanOptions options,
+                              javafx.scene.image.ImageView imageView) {
         // Check if we have stored face data
-        if (!storedFaceEncodings.containsKey(nationalId)) {
-            // Try to load from file
-            String faceImagePath = FACE_DATA_DIR + nationalId + "_face.jpg";
-            if (Files.exists(Paths.get(faceImagePath))) {
-                Mat storedFace = opencv_imgcodecs.imread(faceImagePath, opencv_imgcodecs.IMREAD_GRAYSCALE);
-                storedFaceEncodings.put(nationalId, storedFace);
-            } else {
-                System.out.println("No stored face data found for " + nationalId);
-                return false;
-            }
+        float[] storedDescriptor = loadFaceDescriptor(nationalId);
+        if (storedDescriptor == null) {
+            System.out.println("No stored face data found for " + nationalId);
+            return false;
         }
         
-        FrameGrabber grabber = null;
         try {
-            // Initialize camera
-            grabber = new OpenCVFrameGrabber(0);
-            grabber.start();
-            
-            System.out.println("Camera started. Please look at the camera for verification...");
-            
-            // Capture frames and verify face
-            for (int i = 0; i < 100; i++) { // Try for 100 frames
-                Frame frame = grabber.grab();
-                if (frame == null) continue;
+            boolean matched = scanFrames("Please look at the camera for verification...", camera, options, imageView, normalizedFace -> {
+                // Compare with stored face
+                double similarity = faceMatcher.similarity(faceMatcher.describe(normalizedFace), storedDescriptor);
                 
-                Mat image = converter.convert(frame);
-                if (image == null) continue;
+                System.out.println("Face similarity: " + similarity);
                 
-                // Convert frame to JavaFX Image and display
-                javafx.scene.image.Image fxImage = matToJavaFXImage(image);
-                if (fxImage != null && imageView != null) {
-                    javafx.application.Platform.runLater(() -> imageView.setImage(fxImage));
+                return similarity > options.getMatchThreshold();
+            });
+            System.out.println(matched ? "Face verification successful for " + nationalId
+                                       : "Face verification failed for " + nationalId);
+            return matched;
+        } catch (InterruptedException e) {
+            System.out.println("Face verification cancelled for " + nationalId);
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            System.err.println("Error during face verification: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the enrolled descriptor for nationalId from the cache or the
+     * template store.
+     */
+    private float[] loadFaceDescriptor(String nationalId) {
+        return storedFaceDescriptors.get(nationalId, templateStore::readDescriptor);
+    }
+
+    /**
+     * Returns the national ID of another enrolled voter whose face matches
+     * descriptor, or null. The index narrows the search to a few candidates,
+     * which are then confirmed with the exact matcher.
+     */
+    public String findEnrolledFace(float[] descriptor, String excludeNationalId) {
+        for (FaceIndex.Match candidate : faceIndex.search(descriptor, DUPLICATE_CANDIDATES)) {
+            if (candidate.getNationalId().equals(excludeNationalId)) {
+                continue;
+            }
+            float[] enrolled = loadFaceDescriptor(candidate.getNationalId());
+            if (enrolled != null && faceMatcher.similarity(descriptor, enrolled) > LbpFaceMatcher.DEFAULT_THRESHOLD) {
+                return candidate.getNationalId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Shared capture loop: grabs frames as fast as the camera session
+     * delivers them, optionally previews them, and hands each detected face
+     * to the handler until it accepts one or the deadline passes. Frames
+     * within the warm-up period are previewed but not checked. While no
+     * frame is ready the thread sleeps until the next one is due; a source
+     * that has ended, or a closed session, fails the scan at once.
+     */
+    private boolean scanFrames(String prompt, CameraSession cameraSession, FaceScanOptions options,
+                               javafx.scene.image.ImageView imageView, Predicate<Mat> faceHandler)
+            throws IOException, InterruptedException {
+        FaceFrameProcessor processor = createFrameProcessor();
+        try (CameraSession.Lease camera = cameraSession.acquire();
+             FramePreview preview = imageView != null ? new FramePreview(imageView) : null) {
+            System.out.println("Camera started. " + prompt);
+            
+            long start = System.nanoTime();
+            long warmupEnd = start + TimeUnit.MILLISECONDS.toNanos(options.getWarmupMillis());
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(options.getDeadlineMillis());
+            int frames = 0;
+            while (System.nanoTime() - deadline < 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Face scan cancelled");
                 }
+                Mat image = camera.grab();
+                if (image == null) {
+                    if (camera.isEnded()) {
+                        System.out.println("Frame source ended before a face was accepted.");
+                        return false;
+                    }
+                    // Sleep until the next frame is due instead of spinning on the session lock
+                    long wait = Math.max(camera.getNanosUntilNextFrame(), MIN_FRAME_WAIT_NANOS);
+                    LockSupport.parkNanos(Math.min(wait, deadline - System.nanoTime()));
+                    continue;
+                }
+                frames++;
                 
-                // Detect face
-                Mat grayImage = new Mat();
-                opencv_imgproc.cvtColor(image, grayImage, opencv_imgproc.COLOR_BGR2GRAY);
-                opencv_imgproc.equalizeHist(grayImage, grayImage);
-                
-                RectVector faces = new RectVector();
-                faceDetector.detectMultiScale(grayImage, faces);
+                // Display the frame; stale frames are dropped if the FX thread falls behind
+                if (preview != null) {
+                    preview.offer(image);
+                }
                 
-                if (faces.size() > 0 && i > 30) { // Wait a bit before verifying
-                    // Face detected, extract and compare
-                    Rect faceRect = faces.get(0);
-                    Mat faceROI = new Mat(grayImage, faceRect);
-                    
-                    // Resize face to standard size for comparison
-                    Mat normalizedFace = new Mat();
-                    opencv_imgproc.resize(faceROI, normalizedFace, new Size(100, 100));
-                    
-                    // Compare with stored face
-                    Mat storedFace = storedFaceEncodings.get(nationalId);
-                    double similarity = compareFaces(normalizedFace, storedFace);
-                    
-                    System.out.println("Face similarity: " + similarity);
-                    
-                    // Threshold for face match (adjust as needed)
-                    if (similarity > 0.7) {
-                        System.out.println("Face verification successful for " + nationalId);
-                        grabber.stop();
+                if (System.nanoTime() - warmupEnd >= 0) {
+                    Mat normalizedFace = processor.process(image);
+                    if (normalizedFace != null && faceHandler.test(normalizedFace)) {
+                        System.out.println("Face accepted after " + frames + " frames in "
+                                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
                         return true;
                     }
                 }
-                
-                // Wait a bit before next frame
-                Thread.sleep(100);
             }
-            
-            System.out.println("Face verification failed for " + nationalId);
-            grabber.stop();
             return false;
-            
-        } catch (Exception e) {
-            System.err.println("Error during face verification: " + e.getMessage());
-            if (grabber != null) {
-                try {
-                    grabber.stop();
-                } catch (Exception ex) {
-                    // Ignore
-                }
-            }
-            return false;
-        }
-    }
-    
-    // Helper method to convert OpenCV Mat to JavaFX Image
-    private javafx.scene.image.Image matToJavaFXImage(Mat mat) {
-        try {
-            // Convert Mat to BufferedImage
-            java.awt.image.BufferedImage bufferedImage = new java.awt.image.BufferedImage(
-                mat.cols(), mat.rows(), java.awt.image.BufferedImage.TYPE_3BYTE_BGR);
-            
-            byte[] data = new byte[mat.cols() * mat.rows() * mat.channels()];
-            mat.data().get(data);
-            
-            bufferedImage.getRaster().setDataElements(0, 0, mat.cols(), mat.rows(), data);
-            
-            // Convert BufferedImage to JavaFX Image
-            return javafx.embed.swing.SwingFXUtils.toFXImage(bufferedImage, null);
-        } catch (Exception e) {
-            System.err.println("Error converting Mat to JavaFX Image: " + e.getMessage());
-            return null;
+        } finally {
+            releaseFrameProcessor(processor);
         }
     }
     
     // Method to check if face data exists for a voter
     public boolean hasFaceData(String nationalId) {
-        return storedFaceEncodings.containsKey(nationalId) || 
-               Files.exists(Paths.get(FACE_DATA_DIR + nationalId + "_face.jpg"));
+        return templateStore.contains(nationalId);
     }
 }
 
@@ -0,0 +1,233 @@
+package com.election.simulator.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * PBKDF2 password hashing with a tunable iteration count.
+ *
+ * Hashes are stored as pbkdf2$iterations$salt$hash (Base64), so the cost
+ * can be raised later without invalidating existing passwords. Passwords
+ * that do not carry the prefix are treated as legacy plain text.
+ *
+ * Verification runs on a small bounded pool sized to the CPU count, so a
+ * burst of logins cannot occupy every core; when the queue is full new
+ * requests fail fast instead of piling up. Successful verifications are
+ * remembered per username for a short time, so repeated checks within a
+ * session skip the key derivation. An entry holds an HMAC of the stored
+ * hash and the password under a random key that never leaves this
+ * instance, so a leaked entry cannot be used to test guesses offline.
+ * Expired entries are swept at most once per TTL and the cache holds at
+ * most MAX_CACHE_ENTRIES users; beyond that logins are simply not cached.
+ */
+public class PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 120_000;
+    public static final long DEFAULT_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    public static final int MAX_CACHE_ENTRIES = 10_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final long cacheTtlMillis;
+    private final ThreadPoolExecutor verifyPool;
+    private final Map<String, CachedVerification> verified = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final SecretKeySpec cacheKey;
+
+    private static class CachedVerification {
+        final byte[] digest;
+        final long expiresAt;
+
+        CachedVerification(byte[] digest, long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS, DEFAULT_CACHE_TTL_MILLIS);
+    }
+
+    public PasswordHasher(int iterations, long cacheTtlMillis) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.cacheTtlMillis = cacheTtlMillis;
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+        int workers = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadId = new AtomicInteger();
+        this.verifyPool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "password-verify-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.verifyPool.allowCoreThreadTimeOut(true);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        return hash(password, iterations);
+    }
+
+    /**
+     * Hashes at a cost other than this hasher's, e.g. a cheaper one for a
+     * bulk import; such hashes are upgraded by needsRehash at the next login.
+     */
+    public String hash(String password, int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] key = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * True when stored is plain text or was hashed with a different cost.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) != iterations;
+    }
+
+    /**
+     * Checks password against stored on the calling thread.
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Checks password against stored on the verification pool, answering
+     * from the cache when this username verified the same password recently.
+     * Completes exceptionally with RejectedExecutionException when the pool
+     * is saturated.
+     */
+    public CompletableFuture<Boolean> verifyAsync(String username, String password, String stored) {
+        if (password == null || stored == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        byte[] digest = cacheDigest(password, stored);
+        CachedVerification cached = verified.get(username);
+        if (cached != null) {
+            if (cached.expiresAt > System.currentTimeMillis() && MessageDigest.isEqual(cached.digest, digest)) {
+                return CompletableFuture.completedFuture(true);
+            }
+            verified.remove(username, cached);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean ok = verify(password, stored);
+                if (ok) {
+                    remember(username, digest);
+                }
+                return ok;
+            }, verifyPool);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void remember(String username, byte[] digest) {
+        if (cacheTtlMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long sweepAt = nextSweepAt.get();
+        if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + cacheTtlMillis)) {
+            verified.values().removeIf(cached -> cached.expiresAt <= now);
+        }
+        if (verified.size() < MAX_CACHE_ENTRIES || verified.containsKey(username)) {
+            verified.put(username, new CachedVerification(digest, now + cacheTtlMillis));
+        }
+    }
+
+    /**
+     * Users with a remembered verification, including expired ones not yet
+     * swept.
+     */
+    public int getCachedCount() {
+        return verified.size();
+    }
+
+    public void invalidate(String username) {
+        verified.remove(username);
+    }
+
+    public void clearCache() {
+        verified.clear();
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private byte[] cacheDigest(String password, String stored) {
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(cacheKey);
+            hmac.update(stored.getBytes(StandardCharsets.UTF_8));
+            hmac.update((byte) 0);
+            return hmac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
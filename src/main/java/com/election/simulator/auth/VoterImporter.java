@@ -0,0 +1,222 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.model.Voter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Streams a voter roll from a CSV file into a VoterRegistry.
+ *
+ * Each row is username,password,fullName,nationalId with an optional
+ * fifth isAdmin column; a leading header row is skipped. Lines are read
+ * in fixed-size chunks, so memory stays constant regardless of file size.
+ * Each chunk is parsed and validated in parallel and then committed to the
+ * registry as one batch, which also rejects duplicate usernames and
+ * national IDs. Rejected rows can be written to a separate file together
+ * with their line number and reason. Values already in PasswordHasher
+ * format are kept as they are, so hashing the roll ahead of time is the
+ * fastest way to import it. Plain-text passwords are hashed during the
+ * parallel stage at importIterations, by default DEFAULT_IMPORT_ITERATIONS,
+ * which is far cheaper than the login cost; AuthService rehashes them at
+ * the full cost on each voter's first login.
+ */
+public class VoterImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    public static final int DEFAULT_IMPORT_ITERATIONS = 10_000;
+
+    private final VoterRegistry registry;
+    private final PasswordHasher passwordHasher;
+    private final int chunkSize;
+    private final int importIterations;
+
+    /**
+     * Counts and timing of a finished import.
+     */
+    public static class Result {
+        private final long rowsRead;
+        private final long imported;
+        private final long rejected;
+        private final long elapsedMillis;
+
+        Result(long rowsRead, long imported, long rejected, long elapsedMillis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d rejected in %.1f s (%.0f rows/s)",
+                    rowsRead, imported, rejected, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+
+    public VoterImporter(VoterRegistry registry, PasswordHasher passwordHasher) {
+        this(registry, passwordHasher, DEFAULT_CHUNK_SIZE,
+                Math.min(DEFAULT_IMPORT_ITERATIONS, passwordHasher.getIterations()));
+    }
+
+    public VoterImporter(VoterRegistry registry, PasswordHasher passwordHasher, int chunkSize, int importIterations) {
+        if (importIterations < 1) {
+            throw new IllegalArgumentException("Import iterations must be positive");
+        }
+        this.registry = registry;
+        this.passwordHasher = passwordHasher;
+        this.chunkSize = chunkSize;
+        this.importIterations = importIterations;
+    }
+
+    /**
+     * Imports the voter roll at source. When rejectsFile is not null every
+     * rejected row is written there as lineNumber,reason,originalLine.
+     */
+    public Result importFile(Path source, Path rejectsFile) throws IOException {
+        long start = System.currentTimeMillis();
+        long rowsRead = 0;
+        long imported = 0;
+        long rejected = 0;
+
+        BufferedWriter rejects = null;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            if (rejectsFile != null) {
+                Path parent = rejectsFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8);
+            }
+
+            List<String> lines = new ArrayList<>(chunkSize);
+            Voter[] parsed = new Voter[chunkSize];
+            String[] reasons = new String[chunkSize];
+            List<Voter> batch = new ArrayList<>(chunkSize);
+            int[] batchLines = new int[chunkSize];
+            List<Integer> duplicates = new ArrayList<>();
+            long lineNumber = 0;
+            boolean first = true;
+            String line;
+            while (true) {
+                lines.clear();
+                long chunkStart = lineNumber + 1;
+                while (lines.size() < chunkSize && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (first) {
+                        first = false;
+                        if (line.toLowerCase().startsWith("username,")) {
+                            chunkStart++;
+                            continue;
+                        }
+                    }
+                    lines.add(line);
+                }
+                if (lines.isEmpty()) {
+                    break;
+                }
+                rowsRead += lines.size();
+
+                IntStream.range(0, lines.size()).parallel().forEach(i -> {
+                    parsed[i] = null;
+                    reasons[i] = null;
+                    String[] fields = lines.get(i).split(",", -1);
+                    String reason = validate(fields);
+                    if (reason == null && registry.isTaken(fields[0].trim(), fields[3].trim())) {
+                        reason = "duplicate username or national ID";
+                    }
+                    if (reason != null) {
+                        reasons[i] = reason;
+                    } else {
+                        String password = fields[1].trim();
+                        if (!PasswordHasher.isHashed(password)) {
+                            password = passwordHasher.hash(password, importIterations);
+                        }
+                        parsed[i] = new Voter(fields[0].trim(), password, fields[2].trim(), fields[3].trim(),
+                                fields.length > 4 && Boolean.parseBoolean(fields[4].trim()));
+                    }
+                });
+
+                batch.clear();
+                for (int i = 0; i < lines.size(); i++) {
+                    if (parsed[i] != null) {
+                        batchLines[batch.size()] = i;
+                        batch.add(parsed[i]);
+                    } else {
+                        rejected++;
+                        writeReject(rejects, chunkStart + i, reasons[i], lines.get(i));
+                    }
+                }
+                // Duplicates within the batch, or registered since validation, are rejected here
+                duplicates.clear();
+                imported += registry.addAll(batch, duplicates::add);
+                rejected += duplicates.size();
+                for (int index : duplicates) {
+                    int i = batchLines[index];
+                    writeReject(rejects, chunkStart + i, "duplicate username or national ID", lines.get(i));
+                }
+            }
+        } finally {
+            if (rejects != null) {
+                rejects.close();
+            }
+        }
+        return new Result(rowsRead, imported, rejected, System.currentTimeMillis() - start);
+    }
+
+    private static String validate(String[] fields) {
+        if (fields.length < 4 || fields.length > 5) {
+            return "expected 4 or 5 columns";
+        }
+        for (int i = 0; i < 4; i++) {
+            if (fields[i].trim().isEmpty()) {
+                return "empty field";
+            }
+        }
+        if (fields.length == 5) {
+            String admin = fields[4].trim();
+            if (!admin.isEmpty() && !admin.equalsIgnoreCase("true") && !admin.equalsIgnoreCase("false")) {
+                return "invalid admin flag";
+            }
+        }
+        return null;
+    }
+
+    private static void writeReject(BufferedWriter rejects, long lineNumber, String reason, String line) throws IOException {
+        if (rejects == null) {
+            return;
+        }
+        rejects.write(Long.toString(lineNumber));
+        rejects.write(',');
+        rejects.write(reason);
+        rejects.write(',');
+        rejects.write(line);
+        rejects.newLine();
+    }
+}
@@ -0,0 +1,193 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.model.Voter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Registered voters indexed by username and by national ID.
+ *
+ * Both indexes are updated together under a write lock, so lookups,
+ * registration and deletion are constant time and the two maps never
+ * disagree. Registration order is kept in a separate list, so a page of
+ * voters is copied straight from its offset. Removing a voter shifts that
+ * list and costs time proportional to the number of voters.
+ */
+public class VoterRegistry {
+    private final Map<String, Voter> byUsername;
+    private final Map<String, Voter> byNationalId;
+    private final List<Voter> inOrder;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public VoterRegistry() {
+        this(16);
+    }
+
+    public VoterRegistry(int expectedVoters) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE, expectedVoters / 3L * 4 + 16);
+        this.byUsername = new HashMap<>(capacity);
+        this.byNationalId = new HashMap<>(capacity);
+        this.inOrder = new ArrayList<>(Math.max(16, expectedVoters));
+    }
+
+    /**
+     * Adds the voter unless its username or national ID is already taken.
+     */
+    public boolean add(Voter voter) {
+        lock.writeLock().lock();
+        try {
+            if (byUsername.containsKey(voter.getUsername()) || byNationalId.containsKey(voter.getNationalId())) {
+                return false;
+            }
+            byUsername.put(voter.getUsername(), voter);
+            byNationalId.put(voter.getNationalId(), voter);
+            inOrder.add(voter);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch under a single write lock. Voters whose username or
+     * national ID is already taken, including by an earlier voter in the
+     * same batch, are skipped and their batch index passed to rejected.
+     */
+    public int addAll(List<Voter> batch, IntConsumer rejected) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Voter voter = batch.get(i);
+                if (byUsername.containsKey(voter.getUsername()) || byNationalId.containsKey(voter.getNationalId())) {
+                    rejected.accept(i);
+                    continue;
+                }
+                byUsername.put(voter.getUsername(), voter);
+                byNationalId.put(voter.getNationalId(), voter);
+                inOrder.add(voter);
+                added++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    public Voter remove(String username) {
+        lock.writeLock().lock();
+        try {
+            Voter voter = byUsername.remove(username);
+            if (voter != null) {
+                byNationalId.remove(voter.getNationalId());
+                for (int i = 0; i < inOrder.size(); i++) {
+                    if (inOrder.get(i) == voter) {
+                        inOrder.remove(i);
+                        break;
+                    }
+                }
+            }
+            return voter;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isTaken(String username, String nationalId) {
+        lock.readLock().lock();
+        try {
+            return byUsername.containsKey(username) || byNationalId.containsKey(nationalId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Voter findByUsername(String username) {
+        lock.readLock().lock();
+        try {
+            return byUsername.get(username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Voter findByNationalId(String nationalId) {
+        lock.readLock().lock();
+        try {
+            return byNationalId.get(nationalId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byUsername.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes a read-only view of all voters, in registration order, to
+     * action and returns its result. The read lock is held while action
+     * runs, so the view is consistent without being copied; action must
+     * not add or remove voters.
+     */
+    public <T> T withAll(Function<Collection<Voter>, T> action) {
+        lock.readLock().lock();
+        try {
+            return action.apply(Collections.unmodifiableList(inOrder));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean anyMatch(Predicate<Voter> predicate) {
+        lock.readLock().lock();
+        try {
+            for (Voter voter : inOrder) {
+                if (predicate.test(voter)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies at most limit voters starting at offset, in registration order.
+     */
+    public List<Voter> getPage(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = Math.min(Math.max(0, offset), inOrder.size());
+            int to = (int) Math.min(inOrder.size(), (long) from + Math.max(0, limit));
+            return new ArrayList<>(inOrder.subList(from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void forEach(Consumer<Voter> action) {
+        lock.readLock().lock();
+        try {
+            inOrder.forEach(action);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A long-lived, shared FrameSource.
+ *
+ * Callers acquire a Lease for the duration of a capture or verification.
+ * The first lease starts the source; when the last lease is closed the
+ * source stays open for a linger period so back-to-back logins reuse the
+ * already running camera instead of paying its start-up cost again.
+ * State is guarded by a ReentrantLock rather than a monitor, so a virtual
+ * thread waiting for another booth's grab does not pin its carrier.
+ */
+public class CameraSession implements AutoCloseable {
+    public static final long DEFAULT_LINGER_MILLIS = 30_000;
+
+    private static final ScheduledExecutorService CLOSER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "camera-session-closer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Supplier<FrameSource> factory;
+    private final long lingerMillis;
+    private FrameSource source;
+    private int references;
+    private ScheduledFuture<?> pendingClose;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CameraSession(Supplier<FrameSource> factory) {
+        this(factory, DEFAULT_LINGER_MILLIS);
+    }
+
+    public CameraSession(Supplier<FrameSource> factory, long lingerMillis) {
+        this.factory = factory;
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * A reference to the running source. Each lease copies frames into its
+     * own reusable Mat, so concurrent leases never see a frame overwritten.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Mat frame = new Mat();
+        private boolean closed;
+
+        private Lease() {
+        }
+
+        /**
+         * Grabs the next frame into this lease's Mat, or returns null when
+         * the source has no frame.
+         */
+        public Mat grab() throws IOException {
+            return !closed && grabInto(frame) ? frame : null;
+        }
+
+        /**
+         * True when no further frame will come: the lease or session was
+         * closed, or the source reached its end.
+         */
+        public boolean isEnded() {
+            return closed || sourceEnded();
+        }
+
+        /**
+         * How long until the source expects its next frame, or 0 when
+         * unknown.
+         */
+        public long getNanosUntilNextFrame() {
+            return nanosUntilNextFrame();
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            frame.release();
+            release();
+        }
+    }
+
+    public Lease acquire() throws IOException {
+        lock.lock();
+        try {
+            if (pendingClose != null) {
+                pendingClose.cancel(false);
+                pendingClose = null;
+            }
+            if (source == null) {
+                FrameSource started = factory.get();
+                started.start();
+                source = started;
+                System.out.println("Frame source started: " + source.getDescription());
+            }
+            references++;
+            return new Lease();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isOpen() {
+        lock.lock();
+        try {
+            return source != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getReferenceCount() {
+        lock.lock();
+        try {
+            return references;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean grabInto(Mat target) throws IOException {
+        lock.lock();
+        try {
+            if (source == null) {
+                return false;
+            }
+            Mat grabbed = source.grab();
+            if (grabbed == null || grabbed.empty()) {
+                return false;
+            }
+            grabbed.copyTo(target);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean sourceEnded() {
+        lock.lock();
+        try {
+            return source == null || source.isFinished();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long nanosUntilNextFrame() {
+        lock.lock();
+        try {
+            return source == null ? 0 : source.getNanosUntilNextFrame();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            if (--references > 0 || source == null) {
+                return;
+            }
+            if (lingerMillis <= 0) {
+                stopSource();
+            } else {
+                pendingClose = CLOSER.schedule(this::closeIfIdle, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeIfIdle() {
+        lock.lock();
+        try {
+            if (references == 0) {
+                stopSource();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stopSource() {
+        if (source != null) {
+            source.stop();
+            System.out.println("Frame source stopped: " + source.getDescription());
+            source = null;
+        }
+    }
+
+    /**
+     * Stops the source immediately, even if leases are still open.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (pendingClose != null) {
+                pendingClose.cancel(false);
+                pendingClose = null;
+            }
+            stopSource();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
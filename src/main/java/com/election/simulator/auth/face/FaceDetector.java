@@ -0,0 +1,227 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.RectVector;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
+
+/**
+ * Haar cascade face detection tuned for a single voter in front of a
+ * booth camera.
+ *
+ * Full-frame searches run on a copy of the frame downscaled to
+ * detectionWidth, with an explicit scale factor and face size range. Once a
+ * face is found, following frames only search a window around its last
+ * position, limited to faces of similar size; the full-frame search is
+ * repeated only when the face is lost. Buffers are reused between frames
+ * and released by close(). Not thread-safe.
+ */
+public class FaceDetector implements AutoCloseable {
+    private final CascadeClassifier classifier;
+    private int detectionWidth = 320;
+    private double scaleFactor = 1.1;
+    private int minNeighbors = 3;
+    // Face size range as a fraction of the detection frame width
+    private double minFaceFraction = 0.12;
+    private double maxFaceFraction = 0.9;
+    // How far the tracking window extends beyond the last face, per side
+    private double trackingMargin = 0.5;
+
+    private final Mat small = new Mat();
+    private final Size scaledSize = new Size();
+    private final RectVector faces = new RectVector();
+    private final Rect tracked = new Rect();
+    private boolean tracking;
+    private long fullSearches;
+    private long trackedSearches;
+
+    public FaceDetector(CascadeClassifier classifier) {
+        this.classifier = classifier;
+    }
+
+    /**
+     * Finds a face in an equalized grayscale frame and writes its position,
+     * in frame coordinates, into face. Returns false when none was found.
+     */
+    public boolean detect(Mat gray, Rect face) {
+        if (tracking) {
+            trackedSearches++;
+            if (detectNearTrackedFace(gray)) {
+                copy(tracked, face);
+                return true;
+            }
+            tracking = false;
+        }
+        fullSearches++;
+        if (detectFullFrame(gray)) {
+            tracking = true;
+            copy(tracked, face);
+            return true;
+        }
+        return false;
+    }
+
+    public CascadeClassifier getClassifier() {
+        return classifier;
+    }
+
+    /**
+     * Forgets the tracked face so the next frame gets a full search.
+     */
+    public void reset() {
+        tracking = false;
+    }
+
+    private boolean detectFullFrame(Mat gray) {
+        double scale = Math.min(1.0, (double) detectionWidth / gray.cols());
+        Mat searched = gray;
+        if (scale < 1.0) {
+            opencv_imgproc.resize(gray, small, scaledSize, scale, scale, opencv_imgproc.INTER_AREA);
+            searched = small;
+        }
+        int minSide = (int) Math.max(20, searched.cols() * minFaceFraction);
+        int maxSide = (int) Math.max(minSide, searched.cols() * maxFaceFraction);
+        if (!search(searched, minSide, maxSide)) {
+            return false;
+        }
+        // Rounding back to full size can overshoot the frame edge; clip so the face ROI stays inside gray
+        int left = Math.max(0, (int) Math.round(tracked.x() / scale));
+        int top = Math.max(0, (int) Math.round(tracked.y() / scale));
+        int right = Math.min(gray.cols(), (int) Math.round((tracked.x() + tracked.width()) / scale));
+        int bottom = Math.min(gray.rows(), (int) Math.round((tracked.y() + tracked.height()) / scale));
+        if (right <= left || bottom <= top) {
+            return false;
+        }
+        tracked.x(left);
+        tracked.y(top);
+        tracked.width(right - left);
+        tracked.height(bottom - top);
+        return true;
+    }
+
+    private boolean detectNearTrackedFace(Mat gray) {
+        int margin = (int) (tracked.width() * trackingMargin);
+        int x = Math.max(0, tracked.x() - margin);
+        int y = Math.max(0, tracked.y() - margin);
+        int width = Math.min(gray.cols(), tracked.x() + tracked.width() + margin) - x;
+        int height = Math.min(gray.rows(), tracked.y() + tracked.height() + margin) - y;
+        int minSide = (int) (tracked.width() * 0.7);
+        int maxSide = (int) (tracked.width() * 1.4);
+        if (width < minSide || height < minSide) {
+            return false;
+        }
+        try (Rect window = new Rect(x, y, width, height); Mat roi = new Mat(gray, window)) {
+            if (!search(roi, minSide, maxSide)) {
+                return false;
+            }
+        }
+        tracked.x(tracked.x() + x);
+        tracked.y(tracked.y() + y);
+        return true;
+    }
+
+    /**
+     * Runs the cascade on image and stores the largest face in tracked,
+     * in image coordinates.
+     */
+    private boolean search(Mat image, int minSide, int maxSide) {
+        try (Size minSize = new Size(minSide, minSide); Size maxSize = new Size(maxSide, maxSide)) {
+            classifier.detectMultiScale(image, faces, scaleFactor, minNeighbors, 0, minSize, maxSize);
+        }
+        long count = faces.size();
+        if (count == 0) {
+            return false;
+        }
+        long best = 0;
+        int bestArea = -1;
+        for (long i = 0; i < count; i++) {
+            try (Rect candidate = faces.get(i)) {
+                int area = candidate.width() * candidate.height();
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+        }
+        try (Rect largest = faces.get(best)) {
+            copy(largest, tracked);
+        }
+        return true;
+    }
+
+    private static void copy(Rect from, Rect to) {
+        to.x(from.x()).y(from.y()).width(from.width()).height(from.height());
+    }
+
+    // Getters
+    public int getDetectionWidth() {
+        return detectionWidth;
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public int getMinNeighbors() {
+        return minNeighbors;
+    }
+
+    public double getMinFaceFraction() {
+        return minFaceFraction;
+    }
+
+    public double getMaxFaceFraction() {
+        return maxFaceFraction;
+    }
+
+    public double getTrackingMargin() {
+        return trackingMargin;
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    public long getFullSearches() {
+        return fullSearches;
+    }
+
+    public long getTrackedSearches() {
+        return trackedSearches;
+    }
+
+    // Setters
+    public void setDetectionWidth(int detectionWidth) {
+        this.detectionWidth = detectionWidth;
+    }
+
+    public void setScaleFactor(double scaleFactor) {
+        this.scaleFactor = scaleFactor;
+    }
+
+    public void setMinNeighbors(int minNeighbors) {
+        this.minNeighbors = minNeighbors;
+    }
+
+    public void setMinFaceFraction(double minFaceFraction) {
+        this.minFaceFraction = minFaceFraction;
+    }
+
+    public void setMaxFaceFraction(double maxFaceFraction) {
+        this.maxFaceFraction = maxFaceFraction;
+    }
+
+    public void setTrackingMargin(double trackingMargin) {
+        this.trackingMargin = trackingMargin;
+    }
+
+    @Override
+    public void close() {
+        small.close();
+        scaledSize.close();
+        faces.close();
+        tracked.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
+
+/**
+ * Turns camera frames into normalized grayscale face crops.
+ *
+ * Detection is delegated to a FaceDetector, so a face found in one frame is
+ * tracked through the next. All native buffers (grayscale frame, face
+ * rectangle, normalized face) are allocated once, reused for every frame
+ * and released together by close(). One processor serves one capture or
+ * verification session and is not thread-safe.
+ */
+public class FaceFrameProcessor implements AutoCloseable {
+    public static final int FACE_SIZE = 100;
+
+    private final FaceDetector detector;
+    private final Mat gray = new Mat();
+    private final Rect faceRect = new Rect();
+    private final Mat normalizedFace = new Mat();
+    private final Size faceSize = new Size(FACE_SIZE, FACE_SIZE);
+
+    public FaceFrameProcessor(CascadeClassifier classifier) {
+        this.detector = new FaceDetector(classifier);
+    }
+
+    /**
+     * Detects the first face in a BGR frame and returns it resized to
+     * FACE_SIZE x FACE_SIZE, or null when no face was found. The returned
+     * Mat is owned by the processor and overwritten by the next call.
+     */
+    public Mat process(Mat frame) {
+        opencv_imgproc.cvtColor(frame, gray, opencv_imgproc.COLOR_BGR2GRAY);
+        opencv_imgproc.equalizeHist(gray, gray);
+
+        if (!detector.detect(gray, faceRect)) {
+            return null;
+        }
+        // The ROI is only a header over gray, released straight away
+        try (Mat faceROI = new Mat(gray, faceRect)) {
+            opencv_imgproc.resize(faceROI, normalizedFace, faceSize);
+        }
+        return normalizedFace;
+    }
+
+    public FaceDetector getDetector() {
+        return detector;
+    }
+
+    @Override
+    public void close() {
+        detector.close();
+        gray.close();
+        faceRect.close();
+        normalizedFace.close();
+        faceSize.close();
+    }
+}
@@ -0,0 +1,266 @@
+package com.election.simulator.auth.face;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory 1:N index of enrolled face descriptors.
+ *
+ * LBP descriptors are mapped to compact embeddings: each histogram bin is
+ * square-rooted (so a dot product approximates the Bhattacharyya
+ * coefficient of the histograms), projected with a fixed random Gaussian
+ * matrix down to a few dimensions and L2-normalized. Embeddings are kept
+ * in flat float[] chunks, and a query is a brute-force cosine scan over
+ * all of them, split across the common ForkJoinPool by chunk. The
+ * similarity returned is approximate; callers confirm candidates with
+ * LbpFaceMatcher.
+ */
+public class FaceIndex {
+    public static final int DEFAULT_DIMENSIONS = 128;
+
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Fixed so embeddings are reproducible between runs
+    private static final long PROJECTION_SEED = 0x5EED_FACEL;
+
+    private final int dimensions;
+    private final float[] projection;
+    private final List<float[]> chunks = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A candidate returned by search.
+     */
+    public static class Match {
+        private final String nationalId;
+        private final double similarity;
+
+        Match(String nationalId, double similarity) {
+            this.nationalId = nationalId;
+            this.similarity = similarity;
+        }
+
+        public String getNationalId() {
+            return nationalId;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        @Override
+        public String toString() {
+            return nationalId + " (" + String.format("%.3f", similarity) + ")";
+        }
+    }
+
+    public FaceIndex() {
+        this(DEFAULT_DIMENSIONS);
+    }
+
+    public FaceIndex(int dimensions) {
+        this.dimensions = dimensions;
+        this.projection = new float[dimensions * LbpFaceMatcher.LENGTH];
+        Random random = new Random(PROJECTION_SEED);
+        float scale = (float) (1.0 / Math.sqrt(dimensions));
+        for (int i = 0; i < projection.length; i++) {
+            projection[i] = (float) random.nextGaussian() * scale;
+        }
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Maps an LBP descriptor to its normalized index embedding.
+     */
+    public float[] embed(float[] descriptor) {
+        float[] root = new float[descriptor.length];
+        for (int i = 0; i < descriptor.length; i++) {
+            root[i] = (float) Math.sqrt(descriptor[i]);
+        }
+        float[] embedding = new float[dimensions];
+        double norm = 0;
+        for (int d = 0; d < dimensions; d++) {
+            float value = dot(projection, d * root.length, root, 0, root.length);
+            embedding[d] = value;
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1.0 / Math.sqrt(norm));
+            for (int d = 0; d < dimensions; d++) {
+                embedding[d] *= inverse;
+            }
+        }
+        return embedding;
+    }
+
+    /**
+     * Adds or replaces the descriptor enrolled for nationalId.
+     */
+    public void add(String nationalId, float[] descriptor) {
+        addEmbedding(nationalId, embed(descriptor));
+    }
+
+    void addEmbedding(String nationalId, float[] embedding) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(nationalId);
+            if (slot == null) {
+                slot = ids.size();
+                if ((slot & CHUNK_MASK) == 0) {
+                    chunks.add(new float[CHUNK_SIZE * dimensions]);
+                }
+                ids.add(nationalId);
+                slots.put(nationalId, slot);
+            }
+            System.arraycopy(embedding, 0, chunks.get(slot >>> CHUNK_BITS), (slot & CHUNK_MASK) * dimensions, dimensions);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String nationalId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(nationalId);
+            if (slot == null) {
+                return false;
+            }
+            // Move the last entry into the freed slot
+            int last = ids.size() - 1;
+            if (slot != last) {
+                String movedId = ids.get(last);
+                System.arraycopy(chunks.get(last >>> CHUNK_BITS), (last & CHUNK_MASK) * dimensions,
+                        chunks.get(slot >>> CHUNK_BITS), (slot & CHUNK_MASK) * dimensions, dimensions);
+                ids.set(slot, movedId);
+                slots.put(movedId, slot);
+            }
+            ids.remove(last);
+            if ((last & CHUNK_MASK) == 0) {
+                chunks.remove(chunks.size() - 1);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String nationalId) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(nationalId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the k enrolled faces most similar to descriptor, best first.
+     * The list is empty when k is not positive.
+     */
+    public List<Match> search(float[] descriptor, int k) {
+        return searchEmbedding(embed(descriptor), k);
+    }
+
+    List<Match> searchEmbedding(float[] query, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int count = ids.size();
+            int chunkCount = (count + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+            // Each chunk keeps its own top k, merged afterwards
+            List<TopK> partials = IntStream.range(0, chunkCount).parallel().mapToObj(c -> {
+                TopK top = new TopK(k);
+                float[] chunk = chunks.get(c);
+                int rows = Math.min(CHUNK_SIZE, count - (c << CHUNK_BITS));
+                for (int row = 0; row < rows; row++) {
+                    top.offer((c << CHUNK_BITS) + row, dot(chunk, row * dimensions, query, 0, dimensions));
+                }
+                return top;
+            }).collect(Collectors.toList());
+
+            TopK top = new TopK(k);
+            for (TopK partial : partials) {
+                for (int i = 0; i < partial.size; i++) {
+                    top.offer(partial.slots[i], partial.scores[i]);
+                }
+            }
+            List<Match> matches = new ArrayList<>(top.size);
+            for (int i = 0; i < top.size; i++) {
+                matches.add(new Match(ids.get(top.slots[i]), top.scores[i]));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k best slots seen so far, kept sorted by descending score.
+     */
+    private static class TopK {
+        final int[] slots;
+        final float[] scores;
+        int size;
+
+        TopK(int k) {
+            slots = new int[k];
+            scores = new float[k];
+        }
+
+        void offer(int slot, float score) {
+            if (size == slots.length && score <= scores[size - 1]) {
+                return;
+            }
+            int i = size < slots.length ? size++ : size - 1;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                slots[i] = slots[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            slots[i] = slot;
+        }
+    }
+
+    // Four independent accumulators let the JIT pipeline and vectorize the loop
+    private static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
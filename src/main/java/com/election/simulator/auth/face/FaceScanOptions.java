@@ -0,0 +1,57 @@
+package com.election.simulator.auth.face;
+
+/**
+ * Timing and acceptance settings for one face capture or verification.
+ *
+ * Frames are processed as fast as the frame source delivers them until a
+ * face is accepted or the deadline passes. Frames arriving during the
+ * warm-up period are shown but not checked, giving the camera time to
+ * settle exposure and the voter time to face it.
+ */
+public class FaceScanOptions {
+    private long deadlineMillis;
+    private long warmupMillis;
+    private double matchThreshold;
+
+    public FaceScanOptions(long deadlineMillis, long warmupMillis, double matchThreshold) {
+        this.deadlineMillis = deadlineMillis;
+        this.warmupMillis = warmupMillis;
+        this.matchThreshold = matchThreshold;
+    }
+
+    // Console capture: no preview, so no warm-up
+    public static FaceScanOptions console() {
+        return new FaceScanOptions(3_000, 0, LbpFaceMatcher.DEFAULT_THRESHOLD);
+    }
+
+    // GUI capture with a live preview
+    public static FaceScanOptions livePreview() {
+        return new FaceScanOptions(10_000, 1_000, LbpFaceMatcher.DEFAULT_THRESHOLD);
+    }
+
+    // Getters
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public double getMatchThreshold() {
+        return matchThreshold;
+    }
+
+    // Setters
+    public void setDeadlineMillis(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public void setWarmupMillis(long warmupMillis) {
+        this.warmupMillis = warmupMillis;
+    }
+
+    public void setMatchThreshold(double matchThreshold) {
+        this.matchThreshold = matchThreshold;
+    }
+}
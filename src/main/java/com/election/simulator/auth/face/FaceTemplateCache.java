@@ -0,0 +1,188 @@
+package com.election.simulator.auth.face;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A least-recently-used cache bounded by total weight in bytes.
+ *
+ * Each value is weighed on insertion; when the total exceeds the budget the
+ * least recently used entries are removed and handed to the eviction
+ * callback, which releases any native memory they hold (for example
+ * Mat.release()). All operations are synchronized on the cache, except
+ * that loaders run outside the lock so a slow disk read does not block
+ * other verifiers. A value returned from the cache may be evicted at any
+ * later time, so callers must not keep native values beyond their call.
+ */
+public class FaceTemplateCache<K, V> {
+    private final long maxWeightBytes;
+    private final ToLongFunction<V> weigher;
+    private final Consumer<V> onEvict;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Long> weights = new HashMap<>();
+    private long weightBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FaceTemplateCache(long maxWeightBytes, ToLongFunction<V> weigher, Consumer<V> onEvict) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.weigher = weigher;
+        this.onEvict = onEvict;
+    }
+
+    public V get(K key) {
+        V value;
+        synchronized (this) {
+            value = entries.get(key);
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Returns the cached value, or loads, caches and returns it. Returns null
+     * when the loader does.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            // Another verifier may have loaded the same key meanwhile
+            V existing = entries.get(key);
+            if (existing != null) {
+                onEvict.accept(loaded);
+                return existing;
+            }
+            insert(key, loaded);
+        }
+        return loaded;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        V previous = entries.remove(key);
+        if (previous != null) {
+            weightBytes -= weights.remove(key);
+            if (previous != value) {
+                onEvict.accept(previous);
+            }
+        }
+        insert(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        V removed = entries.remove(key);
+        if (removed != null) {
+            weightBytes -= weights.remove(key);
+            onEvict.accept(removed);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(onEvict);
+        entries.clear();
+        weights.clear();
+        weightBytes = 0;
+    }
+
+    /**
+     * Loads the given keys ahead of time, e.g. the voters expected at a
+     * station during a shift, stopping once they alone fill the budget.
+     * Older entries are evicted to make room. Returns the number of entries
+     * now cached for those keys.
+     */
+    public int preload(Collection<K> keys, Function<K, V> loader) {
+        int loaded = 0;
+        long preloadedBytes = 0;
+        for (K key : keys) {
+            if (preloadedBytes >= maxWeightBytes) {
+                break;
+            }
+            V value;
+            synchronized (this) {
+                value = entries.get(key);
+            }
+            if (value == null) {
+                value = loader.apply(key);
+                if (value == null) {
+                    continue;
+                }
+                put(key, value);
+            }
+            preloadedBytes += weigher.applyAsLong(value);
+            loaded++;
+        }
+        return loaded;
+    }
+
+    private void insert(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        entries.put(key, value);
+        weights.put(key, weight);
+        weightBytes += weight;
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        // Never evict the entry just inserted, even if it alone exceeds the budget
+        while (weightBytes > maxWeightBytes && entries.size() > 1) {
+            Map.Entry<K, V> entry = eldest.next();
+            weightBytes -= weights.remove(entry.getKey());
+            eldest.remove();
+            onEvict.accept(entry.getValue());
+            evictions.increment();
+        }
+    }
+
+    // Metrics
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long requests = hits.sum() + misses.sum();
+        return requests == 0 ? 0 : (double) hits.sum() / requests;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d entries, %,d of %,d bytes, hit rate %.1f%% (%d hits, %d misses), %d evictions",
+                size(), getWeightBytes(), maxWeightBytes, getHitRate() * 100, getHitCount(), getMissCount(),
+                getEvictionCount());
+    }
+}
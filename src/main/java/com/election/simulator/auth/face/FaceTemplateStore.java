@@ -0,0 +1,332 @@
+package com.election.simulator.auth.face;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * All enrolled face templates in one memory-mapped file.
+ *
+ * After a small header the file holds fixed-size records, each with the
+ * voter's national ID, the LBP descriptor as raw floats and the normalized
+ * FACE_SIZE x FACE_SIZE grayscale face as raw bytes. The file is mapped in
+ * segments of SEGMENT_RECORDS records and grows one segment at a time. An
+ * in-memory map from national ID to record slot is rebuilt from the record
+ * headers on open, so a lookup is a hash probe plus an offset into the
+ * mapping, with no file system call and no image decoding.
+ *
+ * A record's status byte is written last, so a record interrupted by a
+ * crash is ignored on the next open. A replacement is written to a free
+ * slot and only then is the old record marked removed, so the previous
+ * template stays valid until the new one is complete. Each record carries
+ * a sequence number; if a crash leaves two live records for one voter, the
+ * newer one is kept on open and the other slot is freed. Changes reach the
+ * disk when the operating system writes the mapped pages back, or at
+ * flush(). Removed slots are reused by later additions.
+ */
+public class FaceTemplateStore implements AutoCloseable {
+    public static final int MAX_ID_BYTES = 32;
+    public static final int FACE_BYTES = FaceFrameProcessor.FACE_SIZE * FaceFrameProcessor.FACE_SIZE;
+
+    private static final int MAGIC = 0x46545331; // "FTS1"
+    private static final int HEADER_BYTES = 4096;
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+
+    // Record layout: status, ID length, ID, descriptor, face, sequence
+    private static final int ID_OFFSET = 2;
+    private static final int DESCRIPTOR_OFFSET = 36;
+    private static final int FACE_OFFSET = DESCRIPTOR_OFFSET + LbpFaceMatcher.LENGTH * Float.BYTES;
+    private static final int SEQUENCE_OFFSET = FACE_OFFSET + FACE_BYTES;
+    private static final int RECORD_BYTES = 16 * 1024;
+    private static final int SEGMENT_RECORDS = 4096;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+    private long sequence;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FaceTemplateStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the store at file, creating it if it does not exist.
+     */
+    public static FaceTemplateStore open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FaceTemplateStore store = new FaceTemplateStore(file, channel);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        if (channel.size() == 0) {
+            header.putInt(MAGIC).putInt(RECORD_BYTES).putInt(FACE_BYTES).putInt(LbpFaceMatcher.LENGTH).flip();
+            channel.write(header, 0);
+            return;
+        }
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < 16 || header.getInt() != MAGIC || header.getInt() != RECORD_BYTES
+                || header.getInt() != FACE_BYTES || header.getInt() != LbpFaceMatcher.LENGTH) {
+            throw new IOException("Not a compatible face template store: " + file);
+        }
+        long segmentCount = (channel.size() - HEADER_BYTES + SEGMENT_BYTES - 1) / SEGMENT_BYTES;
+        for (int s = 0; s < segmentCount; s++) {
+            mapSegment();
+        }
+        slotCount = segments.size() * SEGMENT_RECORDS;
+        byte[] id = new byte[MAX_ID_BYTES];
+        for (int slot = 0; slot < slotCount; slot++) {
+            ByteBuffer segment = segments.get(slot / SEGMENT_RECORDS);
+            int offset = (slot % SEGMENT_RECORDS) * RECORD_BYTES;
+            int length = segment.get(offset + 1);
+            if (segment.get(offset) != LIVE || length <= 0 || length > MAX_ID_BYTES) {
+                freeSlots.add(slot);
+                continue;
+            }
+            for (int i = 0; i < length; i++) {
+                id[i] = segment.get(offset + ID_OFFSET + i);
+            }
+            long recordSequence = segment.getLong(offset + SEQUENCE_OFFSET);
+            sequence = Math.max(sequence, recordSequence);
+            String nationalId = new String(id, 0, length, StandardCharsets.UTF_8);
+            Integer other = slots.get(nationalId);
+            if (other != null) {
+                // A replacement interrupted before the old record was removed; keep the newer one
+                int stale = record(other).getLong(SEQUENCE_OFFSET) > recordSequence ? slot : other;
+                record(stale).put(0, REMOVED);
+                freeSlots.add(stale);
+                if (stale == slot) {
+                    continue;
+                }
+            }
+            slots.put(nationalId, slot);
+        }
+    }
+
+    private void mapSegment() throws IOException {
+        long position = HEADER_BYTES + segments.size() * SEGMENT_BYTES;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_BYTES));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean contains(String nationalId) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(nationalId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the template of nationalId. face holds FACE_BYTES
+     * row-major grayscale pixels and descriptor LbpFaceMatcher.LENGTH
+     * values.
+     */
+    public void put(String nationalId, byte[] face, float[] descriptor) throws IOException {
+        byte[] id = nationalId.getBytes(StandardCharsets.UTF_8);
+        if (id.length == 0 || id.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("National ID must be 1 to " + MAX_ID_BYTES + " bytes: " + nationalId);
+        }
+        if (face.length != FACE_BYTES || descriptor.length != LbpFaceMatcher.LENGTH) {
+            throw new IllegalArgumentException("Face template has the wrong size");
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = slots.get(nationalId);
+            int slot;
+            if (!freeSlots.isEmpty()) {
+                slot = freeSlots.poll();
+            } else {
+                mapSegment();
+                for (int s = slotCount + 1; s < slotCount + SEGMENT_RECORDS; s++) {
+                    freeSlots.add(s);
+                }
+                slot = slotCount;
+                slotCount += SEGMENT_RECORDS;
+            }
+            // The slot is free, so the record stays hidden until its status is written
+            ByteBuffer record = record(slot);
+            record.put(1, (byte) id.length);
+            record.position(ID_OFFSET);
+            record.put(id);
+            record.position(DESCRIPTOR_OFFSET);
+            record.asFloatBuffer().put(descriptor);
+            record.position(FACE_OFFSET);
+            record.put(face);
+            record.putLong(SEQUENCE_OFFSET, ++sequence);
+            record.put(0, LIVE);
+            if (previous != null) {
+                record(previous).put(0, REMOVED);
+                freeSlots.add(previous);
+            }
+            slots.put(nationalId, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the descriptor of nationalId, or null when it has none.
+     */
+    public float[] readDescriptor(String nationalId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(nationalId);
+            if (slot == null) {
+                return null;
+            }
+            float[] descriptor = new float[LbpFaceMatcher.LENGTH];
+            ByteBuffer record = record(slot);
+            record.position(DESCRIPTOR_OFFSET);
+            record.asFloatBuffer().get(descriptor);
+            return descriptor;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the normalized face pixels of nationalId, or null when it has
+     * none.
+     */
+    public byte[] readFace(String nationalId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(nationalId);
+            if (slot == null) {
+                return null;
+            }
+            byte[] face = new byte[FACE_BYTES];
+            ByteBuffer record = record(slot);
+            record.position(FACE_OFFSET);
+            record.get(face);
+            return face;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean remove(String nationalId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(nationalId);
+            if (slot == null) {
+                return false;
+            }
+            record(slot).put(0, REMOVED);
+            freeSlots.add(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Passes every stored national ID and descriptor to action, in slot
+     * order so the file is read sequentially.
+     */
+    public void forEachDescriptor(BiConsumer<String, float[]> action) {
+        lock.readLock().lock();
+        try {
+            String[] ids = new String[slotCount];
+            slots.forEach((id, slot) -> ids[slot] = id);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids[slot] != null) {
+                    float[] descriptor = new float[LbpFaceMatcher.LENGTH];
+                    ByteBuffer record = record(slot);
+                    record.position(DESCRIPTOR_OFFSET);
+                    record.asFloatBuffer().get(descriptor);
+                    action.accept(ids[slot], descriptor);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all changes through to the disk.
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A view of one record with its own position, safe to use under the read lock
+    private ByteBuffer record(int slot) {
+        ByteBuffer view = segments.get(slot / SEGMENT_RECORDS).duplicate();
+        int offset = (slot % SEGMENT_RECORDS) * RECORD_BYTES;
+        view.position(offset).limit(offset + RECORD_BYTES);
+        return view.slice();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            segments.clear();
+            slots.clear();
+            freeSlots.clear();
+            slotCount = 0;
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.election.simulator.auth.face;
+
+import javafx.application.Platform;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shows camera frames in a JavaFX ImageView without per-frame allocation.
+ *
+ * Frames are converted to BGRA into a reused Mat and copied into a staging
+ * buffer. At most one update is queued on the FX thread at a time; it swaps
+ * the staging and display buffers and writes the pixels into a reused
+ * WritableImage through its PixelWriter. Frames offered while an update is
+ * still pending replace the staged frame, so a slow FX thread drops stale
+ * frames instead of queueing them.
+ */
+public class FramePreview implements AutoCloseable {
+    private static final PixelFormat<ByteBuffer> BGRA = PixelFormat.getByteBgraInstance();
+
+    private final ImageView imageView;
+    private final Mat bgra = new Mat();
+    private final AtomicBoolean updateQueued = new AtomicBoolean();
+    private final Runnable update = this::update;
+
+    // Guarded by this
+    private byte[] staging = new byte[0];
+    private int stagingWidth;
+    private int stagingHeight;
+    private boolean stagingFresh;
+    private long droppedFrames;
+    private long shownFrames;
+
+    // Only touched on the FX thread
+    private byte[] showing = new byte[0];
+    private WritableImage image;
+
+    public FramePreview(ImageView imageView) {
+        this.imageView = imageView;
+    }
+
+    /**
+     * Stages a BGR frame for display. Called from the capture thread.
+     */
+    public void offer(Mat frame) {
+        opencv_imgproc.cvtColor(frame, bgra, opencv_imgproc.COLOR_BGR2BGRA);
+        int width = bgra.cols();
+        int height = bgra.rows();
+        int length = width * height * 4;
+        synchronized (this) {
+            if (staging.length != length) {
+                staging = new byte[length];
+            }
+            bgra.data().get(staging, 0, length);
+            stagingWidth = width;
+            stagingHeight = height;
+            if (stagingFresh) {
+                droppedFrames++;
+            }
+            stagingFresh = true;
+        }
+        if (updateQueued.compareAndSet(false, true)) {
+            Platform.runLater(update);
+        }
+    }
+
+    private void update() {
+        int width;
+        int height;
+        synchronized (this) {
+            updateQueued.set(false);
+            if (!stagingFresh) {
+                return;
+            }
+            byte[] swap = showing;
+            showing = staging;
+            staging = swap;
+            width = stagingWidth;
+            height = stagingHeight;
+            stagingFresh = false;
+            shownFrames++;
+        }
+        if (image == null || (int) image.getWidth() != width || (int) image.getHeight() != height) {
+            image = new WritableImage(width, height);
+            imageView.setImage(image);
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height, BGRA, showing, 0, width * 4);
+    }
+
+    public synchronized long getShownFrames() {
+        return shownFrames;
+    }
+
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    @Override
+    public void close() {
+        bgra.release();
+    }
+}
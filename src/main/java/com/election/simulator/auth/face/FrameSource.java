@@ -0,0 +1,37 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+
+/**
+ * A source of BGR video frames, such as a webcam or a directory of images.
+ */
+public interface FrameSource {
+    void start() throws IOException;
+
+    /**
+     * Returns the next frame, or null when none is available. The Mat is
+     * owned by the source and only valid until the next call.
+     */
+    Mat grab() throws IOException;
+
+    /**
+     * True once grab() will never return another frame, e.g. at the end of
+     * a video file or of a directory that is not looped.
+     */
+    default boolean isFinished() {
+        return false;
+    }
+
+    /**
+     * How long until the next frame is due, or 0 when unknown.
+     */
+    default long getNanosUntilNextFrame() {
+        return 0;
+    }
+
+    void stop();
+
+    String getDescription();
+}
@@ -0,0 +1,73 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.javacv.OpenCVFrameGrabber;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+
+/**
+ * Frames from a camera device, or from a recorded video file, through
+ * JavaCV's OpenCVFrameGrabber.
+ */
+public class GrabberFrameSource implements FrameSource {
+    private final int deviceIndex;
+    private final String videoFile;
+    private final OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+    private OpenCVFrameGrabber grabber;
+    private boolean finished;
+
+    public GrabberFrameSource(int deviceIndex) {
+        this.deviceIndex = deviceIndex;
+        this.videoFile = null;
+    }
+
+    public GrabberFrameSource(String videoFile) {
+        this.deviceIndex = -1;
+        this.videoFile = videoFile;
+    }
+
+    @Override
+    public void start() throws IOException {
+        grabber = videoFile != null ? new OpenCVFrameGrabber(videoFile) : new OpenCVFrameGrabber(deviceIndex);
+        grabber.start();
+        finished = false;
+    }
+
+    @Override
+    public Mat grab() throws IOException {
+        Frame frame = grabber.grab();
+        if (frame == null) {
+            // The grabber blocks for the next camera frame, so null means the stream ended
+            finished = true;
+            return null;
+        }
+        return converter.convert(frame);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void stop() {
+        if (grabber == null) {
+            return;
+        }
+        try {
+            grabber.stop();
+            grabber.release();
+        } catch (FrameGrabber.Exception e) {
+            System.err.println("Error stopping " + getDescription() + ": " + e.getMessage());
+        }
+        grabber = null;
+    }
+
+    @Override
+    public String getDescription() {
+        return videoFile != null ? "video " + videoFile : "camera " + deviceIndex;
+    }
+}
@@ -0,0 +1,93 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays image files as frames so face capture and verification can run
+ * without a camera. The path may be a single image or a directory, whose
+ * images are played in file name order and optionally looped.
+ */
+public class ImageDirectoryFrameSource implements FrameSource {
+    private final Path path;
+    private final boolean loop;
+    private List<Path> images = new ArrayList<>();
+    private int next;
+    private Mat current;
+
+    public ImageDirectoryFrameSource(Path path, boolean loop) {
+        this.path = path;
+        this.loop = loop;
+    }
+
+    @Override
+    public void start() throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                images = files.filter(ImageDirectoryFrameSource::isImage).sorted().collect(Collectors.toList());
+            }
+        } else if (Files.isRegularFile(path)) {
+            images = List.of(path);
+        } else {
+            throw new IOException("Frame source not found: " + path);
+        }
+        if (images.isEmpty()) {
+            throw new IOException("No images found in " + path);
+        }
+        next = 0;
+    }
+
+    @Override
+    public Mat grab() {
+        for (int attempts = 0; attempts < images.size(); attempts++) {
+            if (next >= images.size()) {
+                if (!loop) {
+                    return null;
+                }
+                next = 0;
+            }
+            release();
+            current = opencv_imgcodecs.imread(images.get(next++).toString(), opencv_imgcodecs.IMREAD_COLOR);
+            if (!current.empty()) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !loop && next >= images.size();
+    }
+
+    @Override
+    public void stop() {
+        release();
+    }
+
+    @Override
+    public String getDescription() {
+        return "images from " + path;
+    }
+
+    private void release() {
+        if (current != null) {
+            current.release();
+            current = null;
+        }
+    }
+
+    public static boolean isImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png") || name.endsWith(".bmp");
+    }
+}
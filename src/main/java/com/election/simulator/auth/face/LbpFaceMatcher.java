@@ -0,0 +1,134 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Face descriptors built from uniform local binary pattern histograms.
+ *
+ * A normalized grayscale face is split into a GRID x GRID grid; each cell
+ * contributes a 59-bin histogram of uniform 8-neighbour LBP codes,
+ * normalized to sum to one. Two descriptors are compared with the
+ * chi-square distance, mapped to a similarity between 0 (unrelated) and
+ * 1 (identical). Descriptors are extracted once at enrollment and kept in
+ * the FaceTemplateStore record of the face, so verification is a single
+ * vector comparison. read() only loads the separate .lbp files of older
+ * enrollments while they are migrated into the store.
+ */
+public class LbpFaceMatcher {
+    public static final int GRID = 5;
+    public static final int BINS = 59;
+    public static final int LENGTH = GRID * GRID * BINS;
+    // Starting point only; tune per camera with FaceMatcherBenchmark
+    public static final double DEFAULT_THRESHOLD = 0.75;
+
+    private static final int FILE_MAGIC = 0x4C425031; // "LBP1"
+    private static final byte[] UNIFORM_BIN = new byte[256];
+
+    static {
+        int next = 0;
+        for (int code = 0; code < 256; code++) {
+            int rotated = ((code << 1) | (code >>> 7)) & 0xFF;
+            UNIFORM_BIN[code] = (byte) (Integer.bitCount(code ^ rotated) <= 2 ? next++ : BINS - 1);
+        }
+    }
+
+    /**
+     * Extracts the descriptor of a single-channel 8-bit face image.
+     */
+    public float[] describe(Mat face) {
+        int width = face.cols();
+        int height = face.rows();
+        byte[] pixels = new byte[width * height];
+        if (face.isContinuous()) {
+            face.data().get(pixels);
+        } else {
+            try (Mat copy = face.clone()) {
+                copy.data().get(pixels);
+            }
+        }
+        float[] descriptor = new float[LENGTH];
+        describe(pixels, width, height, descriptor);
+        return descriptor;
+    }
+
+    /**
+     * Extracts the descriptor of a row-major 8-bit grayscale image into
+     * descriptor, which must have LENGTH entries.
+     */
+    public static void describe(byte[] pixels, int width, int height, float[] descriptor) {
+        Arrays.fill(descriptor, 0f);
+        int[] cellCounts = new int[GRID * GRID];
+        for (int y = 1; y < height - 1; y++) {
+            int cellRow = Math.min(GRID - 1, (y - 1) * GRID / (height - 2));
+            int row = y * width;
+            for (int x = 1; x < width - 1; x++) {
+                int i = row + x;
+                int c = pixels[i] & 0xFF;
+                int code = 0;
+                if ((pixels[i - width - 1] & 0xFF) >= c) code |= 0x80;
+                if ((pixels[i - width] & 0xFF) >= c) code |= 0x40;
+                if ((pixels[i - width + 1] & 0xFF) >= c) code |= 0x20;
+                if ((pixels[i + 1] & 0xFF) >= c) code |= 0x10;
+                if ((pixels[i + width + 1] & 0xFF) >= c) code |= 0x08;
+                if ((pixels[i + width] & 0xFF) >= c) code |= 0x04;
+                if ((pixels[i + width - 1] & 0xFF) >= c) code |= 0x02;
+                if ((pixels[i - 1] & 0xFF) >= c) code |= 0x01;
+                int cell = cellRow * GRID + Math.min(GRID - 1, (x - 1) * GRID / (width - 2));
+                descriptor[cell * BINS + UNIFORM_BIN[code]]++;
+                cellCounts[cell]++;
+            }
+        }
+        for (int cell = 0; cell < cellCounts.length; cell++) {
+            if (cellCounts[cell] == 0) {
+                continue;
+            }
+            float scale = 1f / cellCounts[cell];
+            for (int b = cell * BINS, end = b + BINS; b < end; b++) {
+                descriptor[b] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Chi-square similarity: 1 for identical descriptors, 0 when no cell
+     * histogram overlaps.
+     */
+    public double similarity(float[] a, float[] b) {
+        double distance = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            float sum = a[i] + b[i];
+            if (sum > 0) {
+                float diff = a[i] - b[i];
+                distance += diff * diff / sum;
+            }
+        }
+        // Each normalized cell contributes at most 2
+        return 1.0 - distance / (2.0 * GRID * GRID);
+    }
+
+    public static float[] read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a face descriptor file: " + path);
+            }
+            int length = in.readInt();
+            if (length != LENGTH) {
+                throw new IOException("Unexpected descriptor length " + length + " in " + path);
+            }
+            float[] descriptor = new float[length];
+            for (int i = 0; i < length; i++) {
+                descriptor[i] = in.readFloat();
+            }
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.election.simulator.auth.face;
+
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random 640x480 BGR frames written into a single preallocated Mat, for
+ * soak and load tests without a camera. With a frame rate set, grab()
+ * returns null until the next frame is due, like a real camera that has
+ * not delivered a new frame yet; otherwise frames are produced as fast as
+ * they are asked for.
+ */
+public class SyntheticFrameSource implements FrameSource {
+    private final double framesPerSecond;
+    private Mat frame;
+    private Mat low;
+    private Mat high;
+    private long nextFrameAt;
+
+    public SyntheticFrameSource() {
+        this(0);
+    }
+
+    public SyntheticFrameSource(double framesPerSecond) {
+        this.framesPerSecond = framesPerSecond;
+    }
+
+    @Override
+    public void start() {
+        frame = new Mat(480, 640, opencv_core.CV_8UC3);
+        low = new Mat(1, 1, opencv_core.CV_8UC3, Scalar.all(0));
+        high = new Mat(1, 1, opencv_core.CV_8UC3, Scalar.all(255));
+        nextFrameAt = System.nanoTime();
+    }
+
+    @Override
+    public Mat grab() {
+        if (framesPerSecond > 0) {
+            long now = System.nanoTime();
+            if (now - nextFrameAt < 0) {
+                return null;
+            }
+            nextFrameAt = now + (long) (TimeUnit.SECONDS.toNanos(1) / framesPerSecond);
+        }
+        opencv_core.randu(frame, low, high);
+        return frame;
+    }
+
+    @Override
+    public long getNanosUntilNextFrame() {
+        return framesPerSecond > 0 ? Math.max(0, nextFrameAt - System.nanoTime()) : 0;
+    }
+
+    @Override
+    public void stop() {
+        frame.close();
+        low.close();
+        high.close();
+    }
+
+    @Override
+    public String getDescription() {
+        return framesPerSecond > 0 ? "synthetic frames at " + framesPerSecond + " fps" : "synthetic frames";
+    }
+}
@@ -0,0 +1,44 @@
+package com.election.simulator.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Alliance {
+    private String name;
+    private List<Party> members;
+
+    public Alliance(String name, List<Party> members) {
+        this.name = name;
+        this.members = new ArrayList<>(members);
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public List<Party> getMembers() {
+        return members;
+    }
+
+    // Setters
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean contains(Party party) {
+        return members.contains(party);
+    }
+
+    public void removeMember(Party party) {
+        members.remove(party);
+    }
+
+    @Override
+    public String toString() {
+        return "Alliance{" +
+               "name='" + name + '\'' +
+               ", members=" + members.size() +
+               '}';
+    }
+}
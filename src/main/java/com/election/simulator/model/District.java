@@ -0,0 +1,92 @@
+package com.election.simulator.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class District {
+    private String name;
+    private int seats;
+    // Keyed by Party.getId(), which survives renaming a party
+    private final Map<Integer, LongAdder> partyVotes;
+    private volatile Map<Party, Integer> allocatedSeats;
+
+    public District(String name, int seats) {
+        this.name = name;
+        this.seats = seats;
+        this.partyVotes = new ConcurrentHashMap<>();
+        this.allocatedSeats = Collections.emptyMap();
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getVotes(Party party) {
+        LongAdder votes = partyVotes.get(party.getId());
+        return votes == null ? 0 : votes.sum();
+    }
+
+    public long getTotalVotes() {
+        long total = 0;
+        for (LongAdder votes : partyVotes.values()) {
+            total += votes.sum();
+        }
+        return total;
+    }
+
+    public int getAllocatedSeats(Party party) {
+        return allocatedSeats.getOrDefault(party, 0);
+    }
+
+    public Map<Party, Integer> getAllocatedSeats() {
+        return allocatedSeats;
+    }
+
+    // Setters
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setSeats(int seats) {
+        this.seats = seats;
+    }
+
+    public void setAllocatedSeats(Map<Party, Integer> allocatedSeats) {
+        this.allocatedSeats = Collections.unmodifiableMap(allocatedSeats);
+    }
+
+    public void setVotes(Party party, long votes) {
+        LongAdder adder = new LongAdder();
+        adder.add(votes);
+        partyVotes.put(party.getId(), adder);
+    }
+
+    public void addVote(Party party) {
+        partyVotes.computeIfAbsent(party.getId(), id -> new LongAdder()).increment();
+    }
+
+    public void removeVotesForParty(Party party) {
+        partyVotes.remove(party.getId());
+    }
+
+    public void clearVotes() {
+        partyVotes.clear();
+        allocatedSeats = Collections.emptyMap();
+    }
+
+    @Override
+    public String toString() {
+        return "District{" +
+               "name='" + name + '\'' +
+               ", seats=" + seats +
+               ", totalVotes=" + getTotalVotes() +
+               '}';
+    }
+}
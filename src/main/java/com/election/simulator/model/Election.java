@@ -1,6 +1,9 @@
 package com.election.simulator.model;
 
+import java.time.ZoneId;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -9,15 +12,28 @@ public class Election {
     private String electionName;
     private List<Voter> registeredVoters;
     private List<Party> politicalParties;
-    private List<Vote> castVotes;
+    private VoteStore castVotes;
     private int totalSeats;
+    private List<District> districts;
+    // National leveling seats handed out on top of the district seats
+    private int compensationSeats;
+    private List<Alliance> alliances;
+    // Thresholds are percentages of the valid vote; 0 disables the threshold
+    private double nationalThresholdPercent;
+    private double allianceThresholdPercent;
+    private double districtThresholdPercent;
+    // Parties winning at least this many districts are exempt from the national threshold; 0 disables
+    private int thresholdExemptionDistricts;
 
     public Election(String electionName, int totalSeats) {
         this.electionName = electionName;
         this.registeredVoters = new ArrayList<>();
-        this.politicalParties = new ArrayList<>();
-        this.castVotes = new ArrayList<>();
+        this.politicalParties = Collections.synchronizedList(new ArrayList<>());
+        this.castVotes = new VoteStore();
         this.totalSeats = totalSeats;
+        this.districts = Collections.synchronizedList(new ArrayList<>());
+        this.compensationSeats = 0;
+        this.alliances = Collections.synchronizedList(new ArrayList<>());
     }
 
     // Getters
@@ -33,7 +49,25 @@ public class Election {
         return politicalParties;
     }
 
+    /**
+     * Read-only view of the cast ballots. Each element is materialized from
+     * the columnar store on access.
+     */
     public List<Vote> getCastVotes() {
+        return new AbstractList<Vote>() {
+            @Override
+            public Vote get(int index) {
+                return castVotes.getVote(index);
+            }
+
+            @Override
+            public int size() {
+                return castVotes.size();
+            }
+        };
+    }
+
+    public VoteStore getVoteStore() {
         return castVotes;
     }
 
@@ -41,6 +75,38 @@ public class Election {
         return totalSeats;
     }
 
+    public List<District> getDistricts() {
+        return districts;
+    }
+
+    public int getCompensationSeats() {
+        return compensationSeats;
+    }
+
+    public List<Alliance> getAlliances() {
+        return alliances;
+    }
+
+    public double getNationalThresholdPercent() {
+        return nationalThresholdPercent;
+    }
+
+    public double getAllianceThresholdPercent() {
+        return allianceThresholdPercent;
+    }
+
+    public double getDistrictThresholdPercent() {
+        return districtThresholdPercent;
+    }
+
+    public int getThresholdExemptionDistricts() {
+        return thresholdExemptionDistricts;
+    }
+
+    public boolean hasDistricts() {
+        return !districts.isEmpty();
+    }
+
     // Setters
     public void setElectionName(String electionName) {
         this.electionName = electionName;
@@ -51,17 +117,40 @@ public class Election {
     }
 
     public void setPoliticalParties(List<Party> politicalParties) {
-        this.politicalParties = politicalParties;
+        this.politicalParties = Collections.synchronizedList(new ArrayList<>(politicalParties));
     }
 
     public void setCastVotes(List<Vote> castVotes) {
-        this.castVotes = castVotes;
+        this.castVotes.clear();
+        for (Vote vote : castVotes) {
+            addVote(vote);
+        }
     }
 
     public void setTotalSeats(int totalSeats) {
         this.totalSeats = totalSeats;
     }
 
+    public void setCompensationSeats(int compensationSeats) {
+        this.compensationSeats = compensationSeats;
+    }
+
+    public void setNationalThresholdPercent(double nationalThresholdPercent) {
+        this.nationalThresholdPercent = nationalThresholdPercent;
+    }
+
+    public void setAllianceThresholdPercent(double allianceThresholdPercent) {
+        this.allianceThresholdPercent = allianceThresholdPercent;
+    }
+
+    public void setDistrictThresholdPercent(double districtThresholdPercent) {
+        this.districtThresholdPercent = districtThresholdPercent;
+    }
+
+    public void setThresholdExemptionDistricts(int thresholdExemptionDistricts) {
+        this.thresholdExemptionDistricts = thresholdExemptionDistricts;
+    }
+
     // Methods for managing election data
     public void addVoter(Voter voter) {
         this.registeredVoters.add(voter);
@@ -71,8 +160,86 @@ public class Election {
         this.politicalParties.add(party);
     }
 
+    public void addDistrict(District district) {
+        this.districts.add(district);
+    }
+
+    public District findDistrict(String name) {
+        synchronized (districts) {
+            for (District district : districts) {
+                if (district.getName().equalsIgnoreCase(name)) {
+                    return district;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void addAlliance(Alliance alliance) {
+        this.alliances.add(alliance);
+    }
+
+    public Alliance findAlliance(Party party) {
+        synchronized (alliances) {
+            for (Alliance alliance : alliances) {
+                if (alliance.contains(party)) {
+                    return alliance;
+                }
+            }
+        }
+        return null;
+    }
+
     public void addVote(Vote vote) {
-        this.castVotes.add(vote);
+        recordVote(vote);
+    }
+
+    /**
+     * Records a vote unless its voter's national ID has already voted.
+     * The ID is claimed atomically before the vote is appended, so concurrent
+     * casts for the same voter are accepted exactly once.
+     */
+    public boolean recordVote(Vote vote) {
+        long epochMillis = vote.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return castVotes.record(vote.getVoter().getNationalId(), vote.getVotedParty(), epochMillis);
+    }
+
+    public boolean recordVote(String nationalId, Party party, long epochMillis) {
+        return castVotes.record(nationalId, party, epochMillis);
+    }
+
+    /**
+     * Claims the national ID for a ballot that is stored later with
+     * commitVote, or given up with releaseVote if it cannot be kept.
+     */
+    public boolean claimVote(String nationalId) {
+        return castVotes.claim(nationalId);
+    }
+
+    public void commitVote(String nationalId, Party party, long epochMillis) {
+        castVotes.commit(nationalId, party, epochMillis);
+    }
+
+    public void releaseVote(String nationalId) {
+        castVotes.release(nationalId);
+    }
+
+    public boolean hasVoted(String nationalId) {
+        return castVotes.hasVoted(nationalId);
+    }
+
+    public void removeVotesForParty(Party party) {
+        castVotes.removeParty(party);
+        synchronized (districts) {
+            districts.forEach(district -> district.removeVotesForParty(party));
+        }
+    }
+
+    public void clearVotes() {
+        castVotes.clear();
+        synchronized (districts) {
+            districts.forEach(District::clearVotes);
+        }
     }
 
     public int getTotalVotes() {
@@ -81,13 +248,12 @@ public class Election {
 
     public Map<Party, Integer> getPartyVotes() {
         Map<Party, Integer> partyVotes = new HashMap<>();
-        for (Party party : politicalParties) {
-            partyVotes.put(party, 0);
-        }
-        for (Vote vote : castVotes) {
-            Party votedParty = vote.getVotedParty();
-            partyVotes.put(votedParty, partyVotes.get(votedParty) + 1);
+        synchronized (politicalParties) {
+            for (Party party : politicalParties) {
+                partyVotes.put(party, 0);
+            }
         }
+        castVotes.countByParty().forEach((party, count) -> partyVotes.merge(party, count, Integer::sum));
         return partyVotes;
     }
 
@@ -96,6 +262,7 @@ public class Election {
         return "Election{" +
                "electionName=\'" + electionName + '\'' +
                ", totalSeats=" + totalSeats +
+               ", districtsCount=" + districts.size() +
                ", registeredVotersCount=" + registeredVoters.size() +
                ", politicalPartiesCount=" + politicalParties.size() +
                ", castVotesCount=" + castVotes.size() +
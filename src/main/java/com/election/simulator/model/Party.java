@@ -1,16 +1,23 @@
 package com.election.simulator.model;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 public class Party {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // Unlike equals/hashCode, stays the same when the party is renamed
+    private final int id = NEXT_ID.incrementAndGet();
     private String name;
     private String abbreviation;
-    private int votes;
+    // Striped counter so concurrent casts never lose an increment
+    private final LongAdder votes = new LongAdder();
     private int seats;
     private String iconPath;
 
     public Party(String name, String abbreviation) {
         this.name = name;
         this.abbreviation = abbreviation;
-        this.votes = 0;
         this.seats = 0;
         this.iconPath = "";
     }
@@ -18,12 +25,19 @@ public class Party {
     public Party(String name, String abbreviation, String iconPath) {
         this.name = name;
         this.abbreviation = abbreviation;
-        this.votes = 0;
         this.seats = 0;
         this.iconPath = iconPath != null ? iconPath : "";
     }
 
     // Getters
+    /**
+     * Identity of this party object for the lifetime of the process, used to
+     * key tallies that must survive updates to the name or abbreviation.
+     */
+    public int getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -33,7 +47,7 @@ public class Party {
     }
 
     public int getVotes() {
-        return votes;
+        return votes.intValue();
     }
 
     public int getSeats() {
@@ -54,11 +68,12 @@ public class Party {
     }
 
     public void addVote() {
-        this.votes++;
+        this.votes.increment();
     }
 
     public void setVotes(int votes) {
-        this.votes = votes;
+        this.votes.reset();
+        this.votes.add(votes);
     }
 
     public void setSeats(int seats) {
@@ -74,7 +89,7 @@ public class Party {
         return "Party{" +
                "name=\'" + name + '\'' +
                ", abbreviation=\'" + abbreviation + '\'' +
-               ", votes=" + votes +
+               ", votes=" + getVotes() +
                ", seats=" + seats +
                ", iconPath=\'" + iconPath + '\'' +
                '}';
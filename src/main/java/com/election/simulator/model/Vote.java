@@ -13,6 +13,12 @@ public class Vote {
         this.timestamp = LocalDateTime.now();
     }
 
+    public Vote(Voter voter, Party votedParty, LocalDateTime timestamp) {
+        this.voter = voter;
+        this.votedParty = votedParty;
+        this.timestamp = timestamp;
+    }
+
     // Getters
     public Voter getVoter() {
         return voter;
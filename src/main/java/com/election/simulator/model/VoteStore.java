@@ -0,0 +1,268 @@
+package com.election.simulator.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columnar storage for cast ballots.
+ *
+ * Each ballot is one row spread over three primitive columns: the party as a
+ * short index into the store's party table, the voter as an interned int id
+ * and the cast time as epoch milliseconds. Columns grow in fixed-size chunks
+ * so appending never copies existing rows. The columns cost 14 bytes per
+ * ballot. The has-voted index adds about 56 bytes per voter (map node, table
+ * slot, boxed id and voter table entry) plus the national ID string, so an
+ * 11-digit ID comes to roughly 130 bytes per ballot in all. The object model
+ * needed a Vote, a throwaway Voter and a LocalDateTime per ballot on top of
+ * a separate has-voted set.
+ *
+ * The interning map doubles as the has-voted index: a national ID is claimed
+ * atomically before its row is written, so each voter is stored at most once.
+ */
+public class VoteStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int PENDING = -1;
+    // Approximate sizes on a 64-bit JVM with compressed references
+    private static final int INDEX_ENTRY_BYTES = 32 + 16 + 8;
+    private static final int STRING_HEADER_BYTES = 24 + 16;
+
+    private short[][] partyChunks = new short[0][];
+    private int[][] voterChunks = new int[0][];
+    private long[][] timeChunks = new long[0][];
+    private int size;
+
+    private final Map<String, Integer> voterIndex = new ConcurrentHashMap<>();
+    private String[] voterNationalIds = new String[1024];
+    private int voterCount;
+
+    /**
+     * Receives rows during a bulk scan.
+     */
+    public interface RowVisitor {
+        void visit(Party party, String nationalId, long epochMillis);
+    }
+
+    private final List<Party> partyTable = new ArrayList<>();
+    private final Map<Party, Integer> partyIndex = new IdentityHashMap<>();
+
+    /**
+     * Appends a ballot unless the national ID has already voted.
+     */
+    public boolean record(String nationalId, Party party, long epochMillis) {
+        if (!claim(nationalId)) {
+            return false;
+        }
+        commit(nationalId, party, epochMillis);
+        return true;
+    }
+
+    /**
+     * Claims the national ID without writing its row yet, so the ballot can
+     * be made durable first. A claimed ID counts as having voted until it is
+     * committed or released.
+     */
+    public boolean claim(String nationalId) {
+        return voterIndex.putIfAbsent(nationalId, PENDING) == null;
+    }
+
+    /**
+     * Writes the row for an ID claimed with claim().
+     */
+    public synchronized void commit(String nationalId, Party party, long epochMillis) {
+        int voterId = internVoter(nationalId);
+        voterIndex.put(nationalId, voterId);
+        append(partyIndexOf(party), voterId, epochMillis);
+    }
+
+    /**
+     * Drops a claim that was never committed; the voter may vote again.
+     */
+    public void release(String nationalId) {
+        voterIndex.remove(nationalId, PENDING);
+    }
+
+    public boolean hasVoted(String nationalId) {
+        return voterIndex.containsKey(nationalId);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized Party getParty(int row) {
+        checkRow(row);
+        return partyTable.get(partyChunks[row >>> CHUNK_BITS][row & CHUNK_MASK]);
+    }
+
+    public synchronized String getNationalId(int row) {
+        checkRow(row);
+        return voterNationalIds[voterChunks[row >>> CHUNK_BITS][row & CHUNK_MASK]];
+    }
+
+    public synchronized long getTimestamp(int row) {
+        checkRow(row);
+        return timeChunks[row >>> CHUNK_BITS][row & CHUNK_MASK];
+    }
+
+    /**
+     * Materializes a row as a Vote. The voter is a lightweight stand-in that
+     * carries only the national ID.
+     */
+    public synchronized Vote getVote(int row) {
+        String nationalId = getNationalId(row);
+        Voter voter = new Voter("voter_" + nationalId, "", "", nationalId, false);
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(getTimestamp(row)), ZoneId.systemDefault());
+        return new Vote(voter, getParty(row), timestamp);
+    }
+
+    /**
+     * Visits every row in order while holding the store lock once, rather
+     * than once per column access.
+     */
+    public synchronized void forEach(RowVisitor visitor) {
+        for (int row = 0; row < size; row++) {
+            int chunk = row >>> CHUNK_BITS;
+            int offset = row & CHUNK_MASK;
+            visitor.visit(partyTable.get(partyChunks[chunk][offset]),
+                    voterNationalIds[voterChunks[chunk][offset]],
+                    timeChunks[chunk][offset]);
+        }
+    }
+
+    /**
+     * Counts ballots per party with a single scan of the party column.
+     */
+    public Map<Party, Integer> countByParty() {
+        int[] counts;
+        Party[] parties;
+        synchronized (this) {
+            counts = new int[partyTable.size()];
+            for (int row = 0; row < size; row++) {
+                counts[partyChunks[row >>> CHUNK_BITS][row & CHUNK_MASK]]++;
+            }
+            parties = partyTable.toArray(new Party[0]);
+        }
+        Map<Party, Integer> result = new HashMap<>();
+        for (int i = 0; i < parties.length; i++) {
+            if (counts[i] > 0) {
+                result.merge(parties[i], counts[i], Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes every ballot for the given party, compacting the columns in
+     * place. The affected voters are released and may vote again.
+     */
+    public synchronized boolean removeParty(Party party) {
+        Integer removed = partyIndex.get(party);
+        if (removed == null) {
+            return false;
+        }
+        short target = removed.shortValue();
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            int chunk = row >>> CHUNK_BITS;
+            int offset = row & CHUNK_MASK;
+            if (partyChunks[chunk][offset] == target) {
+                voterIndex.remove(voterNationalIds[voterChunks[chunk][offset]]);
+                continue;
+            }
+            if (kept != row) {
+                int keptChunk = kept >>> CHUNK_BITS;
+                int keptOffset = kept & CHUNK_MASK;
+                partyChunks[keptChunk][keptOffset] = partyChunks[chunk][offset];
+                voterChunks[keptChunk][keptOffset] = voterChunks[chunk][offset];
+                timeChunks[keptChunk][keptOffset] = timeChunks[chunk][offset];
+            }
+            kept++;
+        }
+        boolean changed = kept != size;
+        size = kept;
+        return changed;
+    }
+
+    public synchronized void clear() {
+        partyChunks = new short[0][];
+        voterChunks = new int[0][];
+        timeChunks = new long[0][];
+        size = 0;
+        voterIndex.clear();
+        voterNationalIds = new String[1024];
+        voterCount = 0;
+        partyTable.clear();
+        partyIndex.clear();
+    }
+
+    /**
+     * Rough heap footprint in bytes of the columns, the voter table, the
+     * has-voted index and the interned national ID strings. The strings are
+     * counted even when the voter roll shares them.
+     */
+    public synchronized long estimateFootprintBytes() {
+        long columns = (long) partyChunks.length * CHUNK_SIZE * (Short.BYTES + Integer.BYTES + Long.BYTES);
+        long voterTable = (long) voterNationalIds.length * Integer.BYTES;
+        long index = (long) voterIndex.size() * INDEX_ENTRY_BYTES;
+        long strings = 0;
+        for (int i = 0; i < voterCount; i++) {
+            // Latin-1 strings keep one byte per character, padded to 8 bytes
+            strings += STRING_HEADER_BYTES + ((voterNationalIds[i].length() + 7) & ~7);
+        }
+        return columns + voterTable + index + strings;
+    }
+
+    private int internVoter(String nationalId) {
+        if (voterCount == voterNationalIds.length) {
+            voterNationalIds = Arrays.copyOf(voterNationalIds, voterCount * 2);
+        }
+        voterNationalIds[voterCount] = nationalId;
+        return voterCount++;
+    }
+
+    private short partyIndexOf(Party party) {
+        Integer index = partyIndex.get(party);
+        if (index == null) {
+            if (partyTable.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many parties for the vote store");
+            }
+            index = partyTable.size();
+            partyTable.add(party);
+            partyIndex.put(party, index);
+        }
+        return index.shortValue();
+    }
+
+    private void append(short party, int voterId, long epochMillis) {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == partyChunks.length) {
+            partyChunks = Arrays.copyOf(partyChunks, chunk + 1);
+            voterChunks = Arrays.copyOf(voterChunks, chunk + 1);
+            timeChunks = Arrays.copyOf(timeChunks, chunk + 1);
+            partyChunks[chunk] = new short[CHUNK_SIZE];
+            voterChunks[chunk] = new int[CHUNK_SIZE];
+            timeChunks[chunk] = new long[CHUNK_SIZE];
+        }
+        int offset = size & CHUNK_MASK;
+        partyChunks[chunk][offset] = party;
+        voterChunks[chunk][offset] = voterId;
+        timeChunks[chunk][offset] = epochMillis;
+        size++;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range, size " + size);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.election.simulator.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only ballot log backed by memory-mapped segments of a single file.
+ *
+ * Every ballot is a fixed-width 128-byte record, so appending is a bounded
+ * copy into the mapped region and replay is a sequential scan with no
+ * serialization framework and no heap growth beyond the decoded strings.
+ * The record count in the header is updated after each record is written,
+ * so a torn append is never replayed. Mapped pages survive a JVM crash;
+ * call sync() to also force them to disk.
+ *
+ * Besides ballots the log holds party removal records, which tell replay to
+ * drop the party and its earlier ballots, and party rename records, which
+ * carry earlier ballots over to the new name, so the log never has to be
+ * rewritten in place. Resetting the election truncates the log.
+ *
+ * Layout: a 64-byte header (magic, version, record size, record count)
+ * followed by records of
+ * <pre>
+ *   long  cast time (epoch millis)
+ *   byte  national ID length, party name length, district name length, record type
+ *   32 bytes national ID, 64 bytes party name, 20 bytes district name (UTF-8)
+ * </pre>
+ */
+public class BallotLog implements AutoCloseable {
+    public static final int RECORD_SIZE = 128;
+    public static final int MAX_NATIONAL_ID_BYTES = 32;
+    public static final int MAX_PARTY_NAME_BYTES = 64;
+    public static final int MAX_DISTRICT_NAME_BYTES = 20;
+
+    private static final int MAGIC = 0x42414C54; // "BALT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int COUNT_OFFSET = 16;
+    private static final byte BALLOT = 0;
+    private static final byte PARTY_REMOVED = 1;
+    private static final byte PARTY_RENAMED = 2;
+    private static final int RECORDS_PER_SEGMENT = 1 << 19; // 64 MB segments
+    private static final long SEGMENT_SIZE = (long) RECORDS_PER_SEGMENT * RECORD_SIZE;
+
+    /**
+     * Receives each record during replay.
+     */
+    public interface Visitor {
+        void visit(String nationalId, String partyName, String districtName, long epochMillis);
+
+        /**
+         * The party was removed together with every ballot for it replayed
+         * so far.
+         */
+        default void partyRemoved(String partyName, long epochMillis) {
+        }
+
+        /**
+         * The party was renamed; ballots replayed so far under the old name
+         * belong to it.
+         */
+        default void partyRenamed(String oldName, String newName, long epochMillis) {
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long recordCount;
+
+    private BallotLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (header.getInt(0) == 0) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, RECORD_SIZE);
+            header.putLong(COUNT_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not a ballot log or unsupported record format");
+        }
+        this.recordCount = header.getLong(COUNT_OFFSET);
+    }
+
+    public static BallotLog open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new BallotLog(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a ballot with these fields fits in a fixed-width record.
+     */
+    public static boolean fits(String nationalId, String partyName, String districtName) {
+        return utf8Length(nationalId) <= MAX_NATIONAL_ID_BYTES
+                && utf8Length(partyName) <= MAX_PARTY_NAME_BYTES
+                && utf8Length(districtName) <= MAX_DISTRICT_NAME_BYTES;
+    }
+
+    public void append(String nationalId, String partyName, String districtName, long epochMillis)
+            throws IOException {
+        write(BALLOT, nationalId, partyName, districtName, epochMillis);
+    }
+
+    /**
+     * Records that the party was removed, which drops its ballots on replay.
+     */
+    public void appendPartyRemoval(String partyName, long epochMillis) throws IOException {
+        write(PARTY_REMOVED, null, partyName, null, epochMillis);
+    }
+
+    /**
+     * Records that the party was renamed. Two names do not fit one record,
+     * so this writes a pair of records, old name then new name, and
+     * publishes both at once.
+     */
+    public synchronized void appendPartyRename(String oldName, String newName, long epochMillis)
+            throws IOException {
+        put(recordCount, PARTY_RENAMED, null, oldName, null, epochMillis);
+        put(recordCount + 1, PARTY_RENAMED, null, newName, null, epochMillis);
+        publish(recordCount + 2);
+    }
+
+    /**
+     * Discards every record. The mapped space is kept and reused by later
+     * appends.
+     */
+    public synchronized void truncate() {
+        recordCount = 0;
+        header.putLong(COUNT_OFFSET, 0);
+        header.force();
+    }
+
+    private synchronized void write(byte type, String nationalId, String partyName, String districtName,
+                                    long epochMillis) throws IOException {
+        put(recordCount, type, nationalId, partyName, districtName, epochMillis);
+        publish(recordCount + 1);
+    }
+
+    private void put(long record, byte type, String nationalId, String partyName, String districtName,
+                     long epochMillis) throws IOException {
+        byte[] id = bytes(nationalId);
+        byte[] party = bytes(partyName);
+        byte[] district = bytes(districtName);
+        if (id.length > MAX_NATIONAL_ID_BYTES || party.length > MAX_PARTY_NAME_BYTES
+                || district.length > MAX_DISTRICT_NAME_BYTES) {
+            throw new IllegalArgumentException("Ballot fields exceed the fixed record width");
+        }
+
+        ByteBuffer segment = segmentFor(record);
+        int position = (int) ((record % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+        segment.putLong(position, epochMillis);
+        segment.put(position + 8, (byte) id.length);
+        segment.put(position + 9, (byte) party.length);
+        segment.put(position + 10, (byte) district.length);
+        segment.put(position + 11, type);
+        putBytes(segment, position + 12, id, MAX_NATIONAL_ID_BYTES);
+        putBytes(segment, position + 12 + MAX_NATIONAL_ID_BYTES, party, MAX_PARTY_NAME_BYTES);
+        putBytes(segment, position + 12 + MAX_NATIONAL_ID_BYTES + MAX_PARTY_NAME_BYTES, district, MAX_DISTRICT_NAME_BYTES);
+    }
+
+    // Records are published only once their bytes are in place
+    private void publish(long count) {
+        recordCount = count;
+        header.putLong(COUNT_OFFSET, recordCount);
+    }
+
+    /**
+     * Scans every committed record in order.
+     */
+    public synchronized void replay(Visitor visitor) throws IOException {
+        byte[] scratch = new byte[MAX_PARTY_NAME_BYTES];
+        for (long i = 0; i < recordCount; i++) {
+            ByteBuffer segment = segmentFor(i);
+            int position = (int) ((i % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+            long epochMillis = segment.getLong(position);
+            int idLength = segment.get(position + 8);
+            int partyLength = segment.get(position + 9);
+            int districtLength = segment.get(position + 10);
+            byte type = segment.get(position + 11);
+            if (type == PARTY_REMOVED) {
+                visitor.partyRemoved(readString(segment, position + 12 + MAX_NATIONAL_ID_BYTES, partyLength, scratch),
+                        epochMillis);
+                continue;
+            }
+            if (type == PARTY_RENAMED) {
+                String oldName = readString(segment, position + 12 + MAX_NATIONAL_ID_BYTES, partyLength, scratch);
+                i++;
+                ByteBuffer next = segmentFor(i);
+                int nextPosition = (int) ((i % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+                String newName = readString(next, nextPosition + 12 + MAX_NATIONAL_ID_BYTES, next.get(nextPosition + 9), scratch);
+                visitor.partyRenamed(oldName, newName, epochMillis);
+                continue;
+            }
+            String nationalId = readString(segment, position + 12, idLength, scratch);
+            String partyName = readString(segment, position + 12 + MAX_NATIONAL_ID_BYTES, partyLength, scratch);
+            String districtName = districtLength == 0 ? null
+                    : readString(segment, position + 12 + MAX_NATIONAL_ID_BYTES + MAX_PARTY_NAME_BYTES, districtLength, scratch);
+            visitor.visit(nationalId, partyName, districtName, epochMillis);
+        }
+    }
+
+    public synchronized long size() {
+        return recordCount;
+    }
+
+    /**
+     * Forces mapped records and the header to the storage device.
+     */
+    public synchronized void sync() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    private ByteBuffer segmentFor(long record) throws IOException {
+        int index = (int) (record / RECORDS_PER_SEGMENT);
+        while (segments.size() <= index) {
+            long offset = HEADER_SIZE + segments.size() * SEGMENT_SIZE;
+            // Mapping past the end of the file grows it; untouched pages stay sparse
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, SEGMENT_SIZE));
+        }
+        return segments.get(index);
+    }
+
+    private static void putBytes(ByteBuffer segment, int position, byte[] value, int width) {
+        for (int i = 0; i < width; i++) {
+            segment.put(position + i, i < value.length ? value[i] : 0);
+        }
+    }
+
+    private static String readString(ByteBuffer segment, int position, int length, byte[] scratch) {
+        for (int i = 0; i < length; i++) {
+            scratch[i] = segment.get(position + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String value) {
+        return bytes(value).length;
+    }
+}
@@ -0,0 +1,410 @@
+package com.election.simulator.persistence;
+
+import com.election.simulator.model.Alliance;
+import com.election.simulator.model.District;
+import com.election.simulator.model.Election;
+import com.election.simulator.model.Party;
+import com.election.simulator.model.Voter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary snapshot of a whole election.
+ *
+ * The file starts with a fixed header holding a table of three sections:
+ * <ul>
+ *   <li>summary: configuration, parties with their tallies and seats,
+ *       districts, alliances and the voter/ballot counts</li>
+ *   <li>voters: the registered voter roll</li>
+ *   <li>ballots: one row per cast ballot (party index, national ID, time)</li>
+ * </ul>
+ * Sections are written through NIO and may each be GZIP-compressed. Opening
+ * a snapshot reads only the header and the small summary section, which is
+ * enough to show results; voters and ballots are streamed in on demand.
+ */
+public class ElectionSnapshot implements Closeable {
+    private static final int MAGIC = 0x45534E50; // "ESNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SUMMARY = 0;
+    private static final int VOTERS = 1;
+    private static final int BALLOTS = 2;
+    private static final int SECTION_COUNT = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Receives each ballot row while ballots are streamed in.
+     */
+    public interface BallotVisitor {
+        void visit(Party party, String nationalId, long epochMillis);
+    }
+
+    private final FileChannel channel;
+    private final boolean compressed;
+    private final long[] sectionOffsets = new long[SECTION_COUNT];
+    private final Election election;
+    private final List<Party> parties;
+    private final String strategyName;
+    private final long voterCount;
+    private final long ballotCount;
+
+    private ElectionSnapshot(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // keep reading until the header is full
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not an election snapshot");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported snapshot version");
+        }
+        this.compressed = header.getInt() != 0;
+        header.getInt(); // section count
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sectionOffsets[i] = header.getLong();
+        }
+
+        try (DataInputStream in = openSection(SUMMARY)) {
+            this.election = new Election(in.readUTF(), in.readInt());
+            this.strategyName = in.readUTF();
+            election.setCompensationSeats(in.readInt());
+            election.setNationalThresholdPercent(in.readDouble());
+            election.setAllianceThresholdPercent(in.readDouble());
+            election.setDistrictThresholdPercent(in.readDouble());
+            election.setThresholdExemptionDistricts(in.readInt());
+
+            int partyCount = in.readInt();
+            this.parties = new ArrayList<>(partyCount);
+            for (int i = 0; i < partyCount; i++) {
+                Party party = new Party(in.readUTF(), in.readUTF(), in.readUTF());
+                party.setVotes(in.readInt());
+                party.setSeats(in.readInt());
+                parties.add(party);
+                election.addParty(party);
+            }
+
+            int districtCount = in.readInt();
+            for (int d = 0; d < districtCount; d++) {
+                District district = new District(in.readUTF(), in.readInt());
+                for (int i = 0; i < partyCount; i++) {
+                    long votes = in.readLong();
+                    if (votes > 0) {
+                        district.setVotes(parties.get(i), votes);
+                    }
+                }
+                election.addDistrict(district);
+            }
+
+            int allianceCount = in.readInt();
+            for (int a = 0; a < allianceCount; a++) {
+                String name = in.readUTF();
+                int memberCount = in.readInt();
+                List<Party> members = new ArrayList<>(memberCount);
+                for (int m = 0; m < memberCount; m++) {
+                    members.add(parties.get(in.readInt()));
+                }
+                election.addAlliance(new Alliance(name, members));
+            }
+
+            this.voterCount = in.readLong();
+            this.ballotCount = in.readLong();
+        }
+    }
+
+    /**
+     * Writes the election, the given voter roll and the seat allocation
+     * method name to path, replacing any existing file. The snapshot is
+     * written to a temporary file next to path and moved over it once
+     * complete, so a crash during the write leaves the previous snapshot
+     * intact.
+     */
+    public static void write(Path path, Election election, Collection<Voter> voters, String strategyName,
+                             boolean compress) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<Party> parties;
+        synchronized (election.getPoliticalParties()) {
+            parties = new ArrayList<>(election.getPoliticalParties());
+        }
+        Map<Party, Integer> partyIndex = new IdentityHashMap<>();
+        for (int i = 0; i < parties.size(); i++) {
+            partyIndex.put(parties.get(i), i);
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            writeSections(temporary, election, voters, strategyName, compress, parties, partyIndex);
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeSections(Path path, Election election, Collection<Voter> voters, String strategyName,
+                                      boolean compress, List<Party> parties, Map<Party, Integer> partyIndex)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long[] offsets = new long[SECTION_COUNT];
+            channel.position(HEADER_SIZE);
+
+            offsets[SUMMARY] = channel.position();
+            try (DataOutputStream out = openSection(channel, compress)) {
+                out.writeUTF(election.getElectionName());
+                out.writeInt(election.getTotalSeats());
+                out.writeUTF(strategyName);
+                out.writeInt(election.getCompensationSeats());
+                out.writeDouble(election.getNationalThresholdPercent());
+                out.writeDouble(election.getAllianceThresholdPercent());
+                out.writeDouble(election.getDistrictThresholdPercent());
+                out.writeInt(election.getThresholdExemptionDistricts());
+
+                out.writeInt(parties.size());
+                for (Party party : parties) {
+                    out.writeUTF(party.getName());
+                    out.writeUTF(party.getAbbreviation());
+                    out.writeUTF(party.getIconPath());
+                    out.writeInt(party.getVotes());
+                    out.writeInt(party.getSeats());
+                }
+
+                List<District> districts;
+                synchronized (election.getDistricts()) {
+                    districts = new ArrayList<>(election.getDistricts());
+                }
+                out.writeInt(districts.size());
+                for (District district : districts) {
+                    out.writeUTF(district.getName());
+                    out.writeInt(district.getSeats());
+                    for (Party party : parties) {
+                        out.writeLong(district.getVotes(party));
+                    }
+                }
+
+                List<Alliance> alliances;
+                synchronized (election.getAlliances()) {
+                    alliances = new ArrayList<>(election.getAlliances());
+                }
+                out.writeInt(alliances.size());
+                for (Alliance alliance : alliances) {
+                    out.writeUTF(alliance.getName());
+                    out.writeInt(alliance.getMembers().size());
+                    for (Party member : alliance.getMembers()) {
+                        out.writeInt(partyIndex.get(member));
+                    }
+                }
+
+                out.writeLong(voters.size());
+                out.writeLong(election.getTotalVotes());
+            }
+
+            offsets[VOTERS] = channel.position();
+            try (DataOutputStream out = openSection(channel, compress)) {
+                for (Voter voter : voters) {
+                    out.writeBoolean(true);
+                    out.writeUTF(voter.getUsername());
+                    out.writeUTF(voter.getPassword());
+                    out.writeUTF(voter.getFullName());
+                    out.writeUTF(voter.getNationalId());
+                    out.writeBoolean(voter.isAdmin());
+                    out.writeBoolean(voter.hasVoted());
+                }
+                out.writeBoolean(false);
+            }
+
+            offsets[BALLOTS] = channel.position();
+            try (DataOutputStream out = openSection(channel, compress)) {
+                election.getVoteStore().forEach((party, nationalId, epochMillis) -> {
+                    Integer index = partyIndex.get(party);
+                    if (index == null) {
+                        return;
+                    }
+                    try {
+                        out.writeBoolean(true);
+                        out.writeShort(index);
+                        out.writeUTF(nationalId);
+                        out.writeLong(epochMillis);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.writeBoolean(false);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(compress ? 1 : 0);
+            header.putInt(SECTION_COUNT);
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.position(HEADER_SIZE);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            // Only a snapshot that is fully on disk may replace the previous one
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Opens a snapshot, reading only its header and summary section.
+     */
+    public static ElectionSnapshot open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ElectionSnapshot(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The election rebuilt from the summary: configuration, parties with
+     * their tallies and seats, districts and alliances. Ballots are not
+     * loaded until loadBallots is called.
+     */
+    public Election getElection() {
+        return election;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public long getVoterCount() {
+        return voterCount;
+    }
+
+    public long getBallotCount() {
+        return ballotCount;
+    }
+
+    /**
+     * Streams the voter roll to the given consumer.
+     */
+    public void loadVoters(Consumer<Voter> consumer) throws IOException {
+        try (DataInputStream in = openSection(VOTERS)) {
+            while (in.readBoolean()) {
+                Voter voter = new Voter(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readBoolean());
+                voter.setHasVoted(in.readBoolean());
+                consumer.accept(voter);
+            }
+        }
+    }
+
+    /**
+     * Streams every ballot row to the given visitor, resolving parties
+     * against getElection().
+     */
+    public void loadBallots(BallotVisitor visitor) throws IOException {
+        try (DataInputStream in = openSection(BALLOTS)) {
+            while (in.readBoolean()) {
+                Party party = parties.get(in.readShort());
+                visitor.visit(party, in.readUTF(), in.readLong());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private DataInputStream openSection(int section) throws IOException {
+        // Positional stream so several sections can be read without sharing state
+        InputStream raw = Channels.newInputStream(new PositionedChannel(channel, sectionOffsets[section]));
+        InputStream buffered = new BufferedInputStream(raw, BUFFER_SIZE);
+        return new DataInputStream(compressed ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered);
+    }
+
+    private static DataOutputStream openSection(FileChannel channel, boolean compress) throws IOException {
+        // Closing a section must finish it without closing the channel
+        OutputStream raw = new FilterOutputStream(Channels.newOutputStream(channel)) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        OutputStream buffered = new BufferedOutputStream(raw, BUFFER_SIZE);
+        return new DataOutputStream(compress ? new GZIPOutputStream(buffered, BUFFER_SIZE) : buffered);
+    }
+
+    /**
+     * Read-only view of a file channel that reads from its own position
+     * using positional reads, leaving the underlying channel untouched.
+     */
+    private static final class PositionedChannel implements ReadableByteChannel {
+        private final FileChannel channel;
+        private long position;
+
+        PositionedChannel(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int read = channel.read(dst, position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // The snapshot owns the channel
+        }
+    }
+}
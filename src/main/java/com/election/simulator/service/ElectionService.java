@@ -1,22 +1,69 @@
 package com.election.simulator.service;
 
+import com.election.simulator.model.Alliance;
+import com.election.simulator.model.District;
 import com.election.simulator.model.Election;
 import com.election.simulator.model.Party;
 import com.election.simulator.model.Voter;
 import com.election.simulator.model.Vote;
-
+import com.election.simulator.persistence.BallotLog;
+import com.election.simulator.persistence.ElectionSnapshot;
+import com.election.simulator.service.allocation.AllocationUnits;
+import com.election.simulator.service.allocation.DHondtStrategy;
+import com.election.simulator.service.allocation.DivisorMethodStrategy;
+import com.election.simulator.service.allocation.DroopQuotaStrategy;
+import com.election.simulator.service.allocation.HareNiemeyerStrategy;
+import com.election.simulator.service.allocation.IncrementalSeatAllocator;
+import com.election.simulator.service.allocation.ModifiedSainteLagueStrategy;
+import com.election.simulator.service.allocation.SainteLagueStrategy;
+import com.election.simulator.service.allocation.SeatAllocationStrategy;
+import com.election.simulator.service.allocation.ThresholdFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class ElectionService {
-    private Election currentElection;
+    private static final List<SeatAllocationStrategy> AVAILABLE_STRATEGIES = List.of(
+            new DHondtStrategy(),
+            new SainteLagueStrategy(),
+            new ModifiedSainteLagueStrategy(),
+            new HareNiemeyerStrategy(),
+            new DroopQuotaStrategy());
+    // Used for compensation seats when the selected method is not a divisor method
+    private static final DivisorMethodStrategy LEVELING_STRATEGY = new ModifiedSainteLagueStrategy();
+
+    public static final String DEFAULT_BALLOT_LOG_PATH = "election_data/ballots.log";
+    public static final String DEFAULT_SNAPSHOT_PATH = "election_data/election.snapshot";
+
+    private volatile Election currentElection;
+    private SeatAllocationStrategy seatAllocationStrategy;
+    // Live divisor-method state; null when the selected method is not a divisor method
+    private IncrementalSeatAllocator seatProjection;
+    private volatile Map<Party, Integer> compensationResults = Collections.emptyMap();
+    // Durable write-through target for cast ballots; null when running in memory only
+    private volatile BallotLog ballotLog;
+    // Completes once the ballots of the last loaded snapshot are in the duplicate-vote index
+    private volatile CompletableFuture<Void> snapshotBallots = CompletableFuture.completedFuture(null);
 
     public ElectionService() {
         // Initialize a default election, e.g., 100 seats
         this.currentElection = new Election("General Election 2025", 100);
+        // D'Hondt is the default method for proportional representation
+        this.seatAllocationStrategy = AVAILABLE_STRATEGIES.get(0);
+        this.seatProjection = new IncrementalSeatAllocator((DivisorMethodStrategy) seatAllocationStrategy);
     }
 
     public Election getCurrentElection() {
@@ -25,39 +72,70 @@ public class ElectionService {
 
     public void setParties(List<Party> parties) {
         this.currentElection.setPoliticalParties(parties);
+        invalidateSeatProjection();
     }
 
     public boolean castVote(String nationalId, String partyName) {
-        // Check if user has already voted
-        boolean hasVoted = currentElection.getCastVotes().stream()
-                .anyMatch(vote -> vote.getVoter().getNationalId().equals(nationalId));
-        
-        if (hasVoted) {
-            System.out.println("Error: User with National ID " + nationalId + " has already voted.");
+        if (recordBallot(nationalId, partyName, null) == null) {
             return false;
         }
+        System.out.println("Vote cast successfully for " + partyName + " by voter " + nationalId);
+        return true;
+    }
+
+    public boolean castVote(String nationalId, String partyName, String districtName) {
+        District district = currentElection.findDistrict(districtName);
+        if (district == null) {
+            System.out.println("Error: District " + districtName + " does not exist.");
+            return false;
+        }
+        if (recordBallot(nationalId, partyName, district) == null) {
+            return false;
+        }
+        System.out.println("Vote cast successfully for " + partyName + " in " + district.getName() + " by voter " + nationalId);
+        return true;
+    }
+
+    // Records the ballot nationally and in its district; returns the party voted for, or null if rejected
+    private Party recordBallot(String nationalId, String partyName, District district) {
+        if (!acceptingBallots()) {
+            return null;
+        }
+        // Fast path; the authoritative check is the atomic claim in claimVote
+        if (currentElection.hasVoted(nationalId)) {
+            System.out.println("Error: User with National ID " + nationalId + " has already voted.");
+            return null;
+        }
+        String districtName = district == null ? null : district.getName();
+        if (ballotLog != null && !BallotLog.fits(nationalId, partyName, districtName)) {
+            System.out.println("Error: Ballot for " + nationalId + " does not fit the ballot log record format.");
+            return null;
+        }
         
-        // Find or create party
-        Party party = currentElection.getPoliticalParties().stream()
-                .filter(p -> p.getName().equals(partyName))
-                .findFirst()
-                .orElseGet(() -> {
-                    Party newParty = new Party(partyName, partyName.substring(0, Math.min(3, partyName.length())).toUpperCase());
-                    currentElection.getPoliticalParties().add(newParty);
-                    return newParty;
-                });
+        Party party = findOrCreateParty(partyName);
         
-        // Create a temporary voter for voting (in real system, this would be the authenticated voter)
-        Voter tempVoter = new Voter("voter_" + nationalId, "", "", nationalId, false);
-        Vote newVote = new Vote(tempVoter, party);
-        currentElection.addVote(newVote);
+        long castAt = System.currentTimeMillis();
+        if (!currentElection.claimVote(nationalId)) {
+            System.out.println("Error: User with National ID " + nationalId + " has already voted.");
+            return null;
+        }
+        // Logged before any tally moves, so a failed write leaves nothing to undo but the claim
+        if (!writeThrough(nationalId, party.getName(), districtName, castAt)) {
+            currentElection.releaseVote(nationalId);
+            return null;
+        }
+        currentElection.commitVote(nationalId, party, castAt);
         party.addVote();
-        
-        System.out.println("Vote cast successfully for " + partyName + " by voter " + nationalId);
-        return true;
+        if (district != null) {
+            district.addVote(party);
+        }
+        return party;
     }
 
     public boolean castVote(Voter voter, Party party) {
+        if (!acceptingBallots()) {
+            return false;
+        }
         if (voter.hasVoted()) {
             System.out.println("Error: " + voter.getUsername() + " has already voted.");
             return false;
@@ -66,62 +144,717 @@ public class ElectionService {
             System.out.println("Error: Party " + party.getName() + " is not a valid party in this election.");
             return false;
         }
+        if (ballotLog != null && !BallotLog.fits(voter.getNationalId(), party.getName(), null)) {
+            System.out.println("Error: Ballot for " + voter.getUsername() + " does not fit the ballot log record format.");
+            return false;
+        }
 
-        Vote newVote = new Vote(voter, party);
-        currentElection.addVote(newVote);
+        long castAt = System.currentTimeMillis();
+        if (!currentElection.claimVote(voter.getNationalId())) {
+            System.out.println("Error: " + voter.getUsername() + " has already voted.");
+            return false;
+        }
+        if (!writeThrough(voter.getNationalId(), party.getName(), null, castAt)) {
+            currentElection.releaseVote(voter.getNationalId());
+            return false;
+        }
+        currentElection.commitVote(voter.getNationalId(), party, castAt);
         party.addVote(); // Increment vote count for the party
         voter.setHasVoted(true);
         System.out.println(voter.getUsername() + " successfully voted for " + party.getName());
         return true;
     }
 
+    /**
+     * Ballots are refused while a snapshot's ballots are still streaming in,
+     * or after they failed to load, because the duplicate-vote index would
+     * not yet know every voter who has already voted.
+     */
+    private boolean acceptingBallots() {
+        CompletableFuture<Void> loading = snapshotBallots;
+        if (!loading.isDone()) {
+            System.out.println("Error: The election snapshot is still loading; ballots are not accepted yet.");
+            return false;
+        }
+        if (loading.isCompletedExceptionally()) {
+            System.out.println("Error: The election snapshot did not load completely; ballots are not accepted.");
+            return false;
+        }
+        return true;
+    }
+
+    // Persistence methods
+    /**
+     * Opens the ballot log at the given path, replays every ballot in it into
+     * the current election and then writes each new ballot through to it.
+     * Parties and districts should be configured before calling this.
+     */
+    public boolean attachBallotLog(Path path) {
+        try {
+            attachBallotLog(BallotLog.open(path));
+            System.out.println("Ballot log opened at " + path + ".");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error opening ballot log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replays an already opened ballot log into the current election and
+     * writes each new ballot through to it.
+     */
+    public void attachBallotLog(BallotLog log) throws IOException {
+        long[] restored = new long[1];
+        log.replay(new BallotLog.Visitor() {
+            @Override
+            public void visit(String nationalId, String partyName, String districtName, long castAt) {
+                Party party = findOrCreateParty(partyName);
+                if (currentElection.recordVote(nationalId, party, castAt)) {
+                    party.addVote();
+                    District district = districtName == null ? null : currentElection.findDistrict(districtName);
+                    if (district != null) {
+                        district.addVote(party);
+                    }
+                    restored[0]++;
+                }
+            }
+
+            @Override
+            public void partyRemoved(String partyName, long removedAt) {
+                Party party = findPartyByExactName(partyName);
+                if (party != null) {
+                    restored[0] -= party.getVotes();
+                    removePartyAndVotes(party);
+                }
+            }
+
+            @Override
+            public void partyRenamed(String oldName, String newName, long renamedAt) {
+                Party party = findPartyByExactName(oldName);
+                if (party != null) {
+                    party.setName(newName);
+                }
+            }
+        });
+        this.ballotLog = log;
+        invalidateSeatProjection();
+        System.out.println("Ballot log attached, restored " + restored[0] + " ballots.");
+    }
+
+    public void closeBallotLog() {
+        BallotLog log = ballotLog;
+        if (log == null) {
+            return;
+        }
+        ballotLog = null;
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Error closing ballot log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the current election and the given voter roll to a binary
+     * snapshot.
+     */
+    public boolean saveSnapshot(Path path, Collection<Voter> voters, boolean compress) {
+        try {
+            ElectionSnapshot.write(path, currentElection, voters, seatAllocationStrategy.getName(), compress);
+            System.out.println("Election snapshot saved to " + path);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving election snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the current election with the one in the snapshot. Parties,
+     * tallies, seats and configuration are available as soon as this
+     * returns; the voter roll and the individual ballots stream in on a
+     * background thread. Ballots cast before the returned future completes
+     * are rejected, since the duplicate-vote index is not complete until
+     * then. An attached ballot log belongs to the
+     * replaced election, so it is closed and new ballots are not logged.
+     */
+    public CompletableFuture<Void> loadSnapshot(Path path, Consumer<Voter> voterSink) {
+        ElectionSnapshot snapshot;
+        try {
+            snapshot = ElectionSnapshot.open(path);
+        } catch (IOException e) {
+            System.err.println("Error loading election snapshot: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        if (ballotLog != null) {
+            closeBallotLog();
+            System.out.println("Ballot log detached; it belongs to the election being replaced.");
+        }
+        Election restored = snapshot.getElection();
+        CompletableFuture<Void> ballotsLoaded = new CompletableFuture<>();
+        // Close the ballot gate before the restored election becomes visible
+        this.snapshotBallots = ballotsLoaded;
+        this.currentElection = restored;
+        for (SeatAllocationStrategy strategy : AVAILABLE_STRATEGIES) {
+            if (strategy.getName().equals(snapshot.getStrategyName())) {
+                setSeatAllocationStrategy(strategy);
+            }
+        }
+        invalidateSeatProjection();
+        System.out.println("Election snapshot loaded from " + path + " (" + snapshot.getBallotCount() + " ballots pending).");
+
+        CompletableFuture.runAsync(() -> {
+            try (ElectionSnapshot source = snapshot) {
+                source.loadVoters(voterSink);
+                // Tallies already came from the summary, so only the ballot rows are restored
+                long[] duplicates = new long[1];
+                source.loadBallots((party, nationalId, castAt) -> {
+                    if (!restored.recordVote(nationalId, party, castAt)) {
+                        duplicates[0]++;
+                    }
+                });
+                if (duplicates[0] > 0) {
+                    System.err.println("Election snapshot holds " + duplicates[0] + " repeated ballots; they were skipped.");
+                }
+                System.out.println("Election snapshot fully loaded: " + restored.getTotalVotes() + " ballots.");
+            } catch (IOException e) {
+                System.err.println("Error loading election snapshot ballots: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((loaded, error) -> {
+            if (error == null) {
+                ballotsLoaded.complete(null);
+            } else {
+                ballotsLoaded.completeExceptionally(error);
+            }
+        });
+        return ballotsLoaded;
+    }
+
+    // Returns false if the ballot log is attached but the ballot could not be written to it
+    private boolean writeThrough(String nationalId, String partyName, String districtName, long castAt) {
+        BallotLog log = ballotLog;
+        if (log == null) {
+            return true;
+        }
+        try {
+            log.append(nationalId, partyName, districtName, castAt);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing ballot to log, ballot rejected: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Party findPartyByExactName(String partyName) {
+        List<Party> parties = currentElection.getPoliticalParties();
+        synchronized (parties) {
+            for (Party p : parties) {
+                if (p.getName().equals(partyName)) {
+                    return p;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Party findOrCreateParty(String partyName) {
+        List<Party> parties = currentElection.getPoliticalParties();
+        // Hold the list lock so two first votes for a new party create it only once
+        synchronized (parties) {
+            for (Party p : parties) {
+                if (p.getName().equals(partyName)) {
+                    return p;
+                }
+            }
+            Party newParty = new Party(partyName, partyName.substring(0, Math.min(3, partyName.length())).toUpperCase());
+            parties.add(newParty);
+            return newParty;
+        }
+    }
+
     public void calculateAndAllocateSeats() {
         int totalVotes = currentElection.getTotalVotes();
-        int totalSeats = currentElection.getTotalSeats();
-        List<Party> parties = currentElection.getPoliticalParties();
 
         if (totalVotes == 0) {
             System.out.println("No votes cast, cannot allocate seats.");
             return;
         }
 
-        // Reset seats for all parties before recalculation
-        parties.forEach(p -> p.setSeats(0));
+        SeatAllocationStrategy strategy = seatAllocationStrategy;
+        Tally tally = snapshotTally();
+        Allocation allocation = allocate(tally, strategy, seatProjection);
+
+        if (tally.hasDistricts()) {
+            long pooled = tally.nationalPoolVotes();
+            if (pooled > 0 && currentElection.getCompensationSeats() == 0) {
+                System.out.println("Warning: " + pooled + " ballots were cast without a district; with no compensation"
+                        + " seats they only count toward the national threshold.");
+            }
+            Map<Party, Integer> compensation = new LinkedHashMap<>();
+            for (int d = 0; d < tally.districts.length; d++) {
+                Map<Party, Integer> seatsByParty = new LinkedHashMap<>();
+                for (int i = 0; i < tally.parties.length; i++) {
+                    seatsByParty.put(tally.parties[i], allocation.districtSeats[d][i]);
+                }
+                tally.districts[d].setAllocatedSeats(seatsByParty);
+            }
+            for (int i = 0; i < tally.parties.length; i++) {
+                compensation.put(tally.parties[i], allocation.compensationSeats[i]);
+            }
+            this.compensationResults = compensation;
+        } else if (sum(allocation.partySeats) == 0) {
+            System.out.println("No party passed the threshold, cannot allocate seats.");
+        }
+
+        // Assign calculated seats back to parties
+        for (int i = 0; i < tally.parties.length; i++) {
+            tally.parties[i].setSeats(allocation.partySeats[i]);
+        }
+
+        if (tally.hasDistricts()) {
+            System.out.println("Seats allocated across " + tally.districts.length + " districts using " + strategy.getName() + " method.");
+        } else {
+            System.out.println("Seats allocated successfully using " + strategy.getName() + " method.");
+        }
+    }
+
+    /**
+     * Party and district tallies read once, so every stage of an allocation
+     * (and every method in a comparison) sees the same votes.
+     */
+    private static final class Tally {
+        final Party[] parties;
+        final long[] votes;
+        final District[] districts;
+        // districtVotes[d][i]: votes for parties[i] in districts[d]
+        final long[][] districtVotes;
+
+        Tally(Party[] parties, long[] votes, District[] districts, long[][] districtVotes) {
+            this.parties = parties;
+            this.votes = votes;
+            this.districts = districts;
+            this.districtVotes = districtVotes;
+        }
+
+        boolean hasDistricts() {
+            return districts.length > 0;
+        }
+
+        // Ballots cast without a district; they only count nationally
+        long nationalPoolVotes() {
+            long pooled = sum(votes);
+            for (long[] votesInDistrict : districtVotes) {
+                pooled -= sum(votesInDistrict);
+            }
+            return pooled;
+        }
+    }
+
+    /**
+     * Seats per party, indexed like Tally.parties. With districts the total
+     * is split into seats per district and national compensation seats.
+     */
+    private static final class Allocation {
+        final int[] partySeats;
+        final int[][] districtSeats;
+        final int[] compensationSeats;
+
+        Allocation(int[] partySeats, int[][] districtSeats, int[] compensationSeats) {
+            this.partySeats = partySeats;
+            this.districtSeats = districtSeats;
+            this.compensationSeats = compensationSeats;
+        }
+    }
 
-        // Using D'Hondt method for proportional representation
-        // This is a common method for seat allocation
-        List<Party> sortedParties = parties.stream()
-                .sorted(Comparator.comparingInt(Party::getVotes).reversed())
-                .collect(Collectors.toList());
+    private Tally snapshotTally() {
+        Party[] parties = snapshotParties();
+        District[] districts = snapshotDistricts();
+        // The national tally counts every ballot, including ballots cast without a district
+        long[] votes = snapshotVotes(parties);
+        long[][] districtVotes = new long[districts.length][parties.length];
+        for (int d = 0; d < districts.length; d++) {
+            for (int i = 0; i < parties.length; i++) {
+                districtVotes[d][i] = districts[d].getVotes(parties[i]);
+            }
+        }
+        return new Tally(parties, votes, districts, districtVotes);
+    }
 
-        double[] quotients = new double[sortedParties.size()];
-        int[] allocatedSeats = new int[sortedParties.size()];
+    /**
+     * Runs the full pipeline for one method: alliances are merged into
+     * allocation units, the thresholds are applied and the seats allocated,
+     * per district when the election has districts. projection, when not
+     * null and built for strategy, carries the national divisor allocation
+     * over from the previous call.
+     */
+    private Allocation allocate(Tally tally, SeatAllocationStrategy strategy, IncrementalSeatAllocator projection) {
+        if (tally.hasDistricts()) {
+            return allocateDistrictSeats(tally, strategy);
+        }
+        Party[] parties = tally.parties;
+        AllocationUnits units = buildAllocationUnits(parties);
+        int unitCount = units.getUnitCount();
+
+        // Threshold and alliance stages run on the primitive tallies before the divisor method
+        long[] unitVotes = new long[unitCount];
+        units.mergeVotes(tally.votes, unitVotes);
+        applyNationalThreshold(parties, units, unitVotes, sum(tally.votes), tally.districtVotes);
+
+        int[] unitSeats = new int[unitCount];
+        if (sum(unitVotes) > 0) {
+            if (projection != null && projection.getStrategy() == strategy) {
+                // Only the seats affected by votes since the last call are recomputed
+                projection.update(unitVotes, unitCount, currentElection.getTotalSeats(), unitSeats);
+            } else {
+                strategy.allocate(unitVotes, unitCount, currentElection.getTotalSeats(), unitSeats);
+            }
+        }
+        int[] partySeats = new int[parties.length];
+        units.apportion(unitSeats, tally.votes, strategy, partySeats);
+        return new Allocation(partySeats, null, null);
+    }
 
-        for (int i = 0; i < totalSeats; i++) {
-            int bestPartyIndex = -1;
-            double maxQuotient = -1.0;
+    /**
+     * Allocates each district's seats from its own tally, then hands out the
+     * national compensation seats on top of the district totals. The
+     * national tally also holds ballots cast without a district, so those
+     * count toward the national threshold and the compensation seats. Districts
+     * are independent, so they are allocated in parallel on the common
+     * ForkJoinPool. Only units that pass the national threshold compete, and
+     * within a district they must also pass the district threshold. The
+     * party totals include the compensation seats.
+     */
+    private Allocation allocateDistrictSeats(Tally tally, SeatAllocationStrategy strategy) {
+        Party[] parties = tally.parties;
+        District[] districts = tally.districts;
+        long[][] districtVotes = tally.districtVotes;
+        int partyCount = parties.length;
+        AllocationUnits units = buildAllocationUnits(parties);
+        int unitCount = units.getUnitCount();
+
+        long[] nationalVotes = tally.votes;
+        long[] nationalUnitVotes = new long[unitCount];
+        units.mergeVotes(nationalVotes, nationalUnitVotes);
+        boolean[] eligible = applyNationalThreshold(parties, units, nationalUnitVotes, sum(nationalVotes), districtVotes);
+
+        double[] districtThresholds = new double[unitCount];
+        Arrays.fill(districtThresholds, currentElection.getDistrictThresholdPercent());
+        boolean[] noExemptions = new boolean[unitCount];
+
+        int[][] districtSeats = new int[districts.length][];
+        int[][] districtUnitSeats = new int[districts.length][];
+        IntStream.range(0, districts.length).parallel().forEach(d -> {
+            long[] unitVotes = new long[unitCount];
+            units.mergeVotes(districtVotes[d], unitVotes);
+            ThresholdFilter.retainEligible(unitVotes, unitCount, eligible);
+            ThresholdFilter.apply(unitVotes, unitCount, sum(districtVotes[d]), districtThresholds,
+                    noExemptions, new boolean[unitCount]);
+
+            int[] unitSeats = new int[unitCount];
+            if (sum(unitVotes) > 0) {
+                strategy.allocate(unitVotes, unitCount, districts[d].getSeats(), unitSeats);
+            }
+            int[] seats = new int[partyCount];
+            units.apportion(unitSeats, districtVotes[d], strategy, seats);
+            districtUnitSeats[d] = unitSeats;
+            districtSeats[d] = seats;
+        });
+
+        int[] totals = new int[partyCount];
+        int[] unitTotals = new int[unitCount];
+        for (int d = 0; d < districts.length; d++) {
+            for (int i = 0; i < partyCount; i++) {
+                totals[i] += districtSeats[d][i];
+            }
+            for (int u = 0; u < unitCount; u++) {
+                unitTotals[u] += districtUnitSeats[d][u];
+            }
+        }
 
-            for (int j = 0; j < sortedParties.size(); j++) {
-                // D'Hondt formula: votes / (seats_already_allocated + 1)
-                quotients[j] = (double) sortedParties.get(j).getVotes() / (allocatedSeats[j] + 1);
+        // Leveling seats continue the divisor sequence from each unit's district seats
+        int[] unitCompensation = new int[unitCount];
+        if (sum(nationalUnitVotes) > 0) {
+            int[] withCompensation = unitTotals.clone();
+            DivisorMethodStrategy leveling = strategy instanceof DivisorMethodStrategy
+                    ? (DivisorMethodStrategy) strategy
+                    : LEVELING_STRATEGY;
+            leveling.allocateAdditional(nationalUnitVotes, unitCount, currentElection.getCompensationSeats(), withCompensation);
+            for (int u = 0; u < unitCount; u++) {
+                unitCompensation[u] = withCompensation[u] - unitTotals[u];
+            }
+        }
+        int[] partyCompensation = new int[partyCount];
+        units.apportion(unitCompensation, nationalVotes, strategy, partyCompensation);
+        for (int i = 0; i < partyCount; i++) {
+            totals[i] += partyCompensation[i];
+        }
+        return new Allocation(totals, districtSeats, partyCompensation);
+    }
 
-                if (quotients[j] > maxQuotient) {
-                    maxQuotient = quotients[j];
-                    bestPartyIndex = j;
+    // Each alliance becomes one allocation unit; every other party is its own unit
+    private AllocationUnits buildAllocationUnits(Party[] parties) {
+        int[] unitOf = new int[parties.length];
+        Map<Alliance, Integer> allianceUnits = new HashMap<>();
+        int unitCount = 0;
+        for (int i = 0; i < parties.length; i++) {
+            Alliance alliance = currentElection.findAlliance(parties[i]);
+            if (alliance == null) {
+                unitOf[i] = unitCount++;
+            } else {
+                Integer unit = allianceUnits.get(alliance);
+                if (unit == null) {
+                    unit = unitCount++;
+                    allianceUnits.put(alliance, unit);
                 }
+                unitOf[i] = unit;
             }
+        }
+        return new AllocationUnits(unitOf, unitCount);
+    }
 
-            if (bestPartyIndex != -1) {
-                allocatedSeats[bestPartyIndex]++;
+    /**
+     * Applies the national (or alliance) threshold to unitVotes in place. A
+     * unit is exempt when one of its members came first in at least the
+     * configured number of districts. Returns the per-unit eligibility.
+     */
+    private boolean[] applyNationalThreshold(Party[] parties, AllocationUnits units, long[] unitVotes,
+                                             long totalVotes, long[][] districtVotes) {
+        int unitCount = units.getUnitCount();
+        double nationalThreshold = currentElection.getNationalThresholdPercent();
+        double allianceThreshold = currentElection.getAllianceThresholdPercent();
+        double[] thresholds = new double[unitCount];
+        for (int u = 0; u < unitCount; u++) {
+            boolean isAlliance = units.getMembers(u).length > 1;
+            thresholds[u] = isAlliance && allianceThreshold > 0 ? allianceThreshold : nationalThreshold;
+        }
+
+        boolean[] exempt = new boolean[unitCount];
+        int requiredWins = currentElection.getThresholdExemptionDistricts();
+        if (requiredWins > 0 && districtVotes.length > 0) {
+            int[] districtWins = new int[parties.length];
+            for (long[] votesInDistrict : districtVotes) {
+                int winner = -1;
+                long best = 0;
+                for (int i = 0; i < parties.length; i++) {
+                    if (votesInDistrict[i] > best) {
+                        best = votesInDistrict[i];
+                        winner = i;
+                    }
+                }
+                if (winner != -1) {
+                    districtWins[winner]++;
+                }
+            }
+            for (int i = 0; i < parties.length; i++) {
+                if (districtWins[i] >= requiredWins) {
+                    exempt[units.getUnitOf(i)] = true;
+                }
             }
         }
 
-        // Assign calculated seats back to parties
-        for (int i = 0; i < sortedParties.size(); i++) {
-            sortedParties.get(i).setSeats(allocatedSeats[i]);
+        boolean[] eligible = new boolean[unitCount];
+        ThresholdFilter.apply(unitVotes, unitCount, totalVotes, thresholds, exempt, eligible);
+        return eligible;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
         }
+        return total;
+    }
+
+    /**
+     * Runs a "what-if" allocation with the given strategy without touching
+     * Party.seats, applying the same alliances, thresholds and districts as
+     * calculateAndAllocateSeats. The result is indexed like getParties().
+     */
+    public int[] previewSeatAllocation(SeatAllocationStrategy strategy) {
+        return allocate(snapshotTally(), strategy, null).partySeats;
+    }
 
-        System.out.println("Seats allocated successfully using D'Hondt method.");
+    /**
+     * Allocates the current tally with every available method, keyed by
+     * method name. Each result is indexed like getParties().
+     */
+    public Map<String, int[]> compareAllocationMethods() {
+        Tally tally = snapshotTally();
+        Map<String, int[]> results = new LinkedHashMap<>();
+        for (SeatAllocationStrategy strategy : AVAILABLE_STRATEGIES) {
+            results.put(strategy.getName(), allocate(tally, strategy, null).partySeats);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the seat vector for the current tally, indexed like getParties(),
+     * without touching Party.seats. Without districts and with a divisor
+     * method this shares the live allocation with calculateAndAllocateSeats
+     * and only repairs the marginal seats, so it is cheap enough to call
+     * after every ballot.
+     */
+    public int[] getLiveSeatProjection() {
+        return allocate(snapshotTally(), seatAllocationStrategy, seatProjection).partySeats;
+    }
+
+    // District management methods
+    public void addDistrict(String name, int seats) {
+        if (name == null || name.trim().isEmpty() || seats <= 0) {
+            System.out.println("District needs a name and a positive number of seats.");
+            return;
+        }
+        if (currentElection.findDistrict(name) != null) {
+            System.out.println("District " + name + " already exists.");
+            return;
+        }
+        currentElection.addDistrict(new District(name, seats));
+        System.out.println("District " + name + " added with " + seats + " seats.");
+    }
+
+    public List<District> getDistricts() {
+        return currentElection.getDistricts();
+    }
+
+    public void setCompensationSeats(int compensationSeats) {
+        if (compensationSeats >= 0) {
+            currentElection.setCompensationSeats(compensationSeats);
+            System.out.println("Compensation seats updated to " + compensationSeats);
+        } else {
+            System.out.println("Compensation seats cannot be negative.");
+        }
+    }
+
+    // Threshold and alliance configuration methods
+    public void setNationalThreshold(double percent) {
+        if (percent >= 0 && percent < 100) {
+            currentElection.setNationalThresholdPercent(percent);
+            invalidateSeatProjection();
+            System.out.println("National threshold set to " + percent + "%");
+        } else {
+            System.out.println("Threshold must be between 0 and 100 percent.");
+        }
+    }
+
+    public void setAllianceThreshold(double percent) {
+        if (percent >= 0 && percent < 100) {
+            currentElection.setAllianceThresholdPercent(percent);
+            invalidateSeatProjection();
+            System.out.println("Alliance threshold set to " + percent + "%");
+        } else {
+            System.out.println("Threshold must be between 0 and 100 percent.");
+        }
+    }
+
+    public void setDistrictThreshold(double percent) {
+        if (percent >= 0 && percent < 100) {
+            currentElection.setDistrictThresholdPercent(percent);
+            System.out.println("District threshold set to " + percent + "%");
+        } else {
+            System.out.println("Threshold must be between 0 and 100 percent.");
+        }
+    }
+
+    public void setThresholdExemptionDistricts(int districtWins) {
+        if (districtWins >= 0) {
+            currentElection.setThresholdExemptionDistricts(districtWins);
+            invalidateSeatProjection();
+            System.out.println("Parties winning " + districtWins + " districts are exempt from the national threshold.");
+        } else {
+            System.out.println("District wins cannot be negative.");
+        }
+    }
+
+    public boolean addAlliance(String name, List<String> partyNames) {
+        List<Party> members = new ArrayList<>();
+        for (String partyName : partyNames) {
+            Party party = findPartyByName(partyName);
+            if (party == null) {
+                System.out.println("Error: Party " + partyName + " does not exist.");
+                return false;
+            }
+            if (currentElection.findAlliance(party) != null) {
+                System.out.println("Error: Party " + partyName + " already belongs to an alliance.");
+                return false;
+            }
+            if (!members.contains(party)) {
+                members.add(party);
+            }
+        }
+        if (members.size() < 2) {
+            System.out.println("An alliance needs at least two parties.");
+            return false;
+        }
+        currentElection.addAlliance(new Alliance(name, members));
+        invalidateSeatProjection();
+        System.out.println("Alliance " + name + " formed with " + members.size() + " parties.");
+        return true;
+    }
+
+    public Map<Party, Integer> getDistrictResults(String districtName) {
+        District district = currentElection.findDistrict(districtName);
+        return district == null ? Collections.emptyMap() : district.getAllocatedSeats();
+    }
+
+    public Map<Party, Integer> getCompensationResults() {
+        return compensationResults;
+    }
+
+    public SeatAllocationStrategy getSeatAllocationStrategy() {
+        return seatAllocationStrategy;
+    }
+
+    public void setSeatAllocationStrategy(SeatAllocationStrategy seatAllocationStrategy) {
+        if (seatAllocationStrategy != null) {
+            this.seatAllocationStrategy = seatAllocationStrategy;
+            this.seatProjection = seatAllocationStrategy instanceof DivisorMethodStrategy
+                    ? new IncrementalSeatAllocator((DivisorMethodStrategy) seatAllocationStrategy)
+                    : null;
+            System.out.println("Seat allocation method set to " + seatAllocationStrategy.getName());
+        }
+    }
+
+    public List<SeatAllocationStrategy> getAvailableStrategies() {
+        return AVAILABLE_STRATEGIES;
+    }
+
+    private void invalidateSeatProjection() {
+        IncrementalSeatAllocator projection = seatProjection;
+        if (projection != null) {
+            projection.invalidate();
+        }
+    }
+
+    private District[] snapshotDistricts() {
+        List<District> districts = currentElection.getDistricts();
+        synchronized (districts) {
+            return districts.toArray(new District[0]);
+        }
+    }
+
+    private Party[] snapshotParties() {
+        List<Party> parties = currentElection.getPoliticalParties();
+        synchronized (parties) {
+            return parties.toArray(new Party[0]);
+        }
+    }
+
+    private static long[] snapshotVotes(Party[] parties) {
+        long[] votes = new long[parties.length];
+        for (int i = 0; i < parties.length; i++) {
+            votes[i] = parties[i].getVotes();
+        }
+        return votes;
     }
 
     public Map<Party, Integer> getElectionResults() {
@@ -141,6 +874,7 @@ public class ElectionService {
     public void addParty(Party party) {
         if (party != null && !currentElection.getPoliticalParties().contains(party)) {
             currentElection.getPoliticalParties().add(party);
+            invalidateSeatProjection();
             System.out.println("Party " + party.getName() + " added successfully.");
         } else {
             System.out.println("Party already exists or is null.");
@@ -153,26 +887,76 @@ public class ElectionService {
             Party existingParty = parties.get(i);
             if (existingParty.equals(updatedParty)) {
                 // Update the existing party with new details
-                existingParty.setName(updatedParty.getName());
-                existingParty.setAbbreviation(updatedParty.getAbbreviation());
-                existingParty.setIconPath(updatedParty.getIconPath());
-                System.out.println("Party updated successfully.");
+                updateParty(existingParty, updatedParty.getName(), updatedParty.getAbbreviation(),
+                        updatedParty.getIconPath());
                 return;
             }
         }
         System.out.println("Party not found for update.");
     }
 
+    /**
+     * Updates the party's details in place. A new name is written to the
+     * ballot log, otherwise replay would file the party's earlier ballots
+     * under the old name.
+     */
+    public boolean updateParty(Party party, String name, String abbreviation, String iconPath) {
+        String oldName = party.getName();
+        BallotLog log = ballotLog;
+        if (log != null && !oldName.equals(name)) {
+            if (!BallotLog.fits(null, name, null)) {
+                System.out.println("Error: Party name " + name + " does not fit the ballot log record format.");
+                return false;
+            }
+            // Ballots for a party whose name does not fit were never logged
+            if (BallotLog.fits(null, oldName, null)) {
+                try {
+                    log.appendPartyRename(oldName, name, System.currentTimeMillis());
+                } catch (IOException e) {
+                    System.err.println("Error writing party rename to ballot log: " + e.getMessage());
+                    return false;
+                }
+            }
+        }
+        party.setName(name);
+        party.setAbbreviation(abbreviation);
+        party.setIconPath(iconPath);
+        System.out.println("Party updated successfully.");
+        return true;
+    }
+
     public void removeParty(Party party) {
-        if (currentElection.getPoliticalParties().remove(party)) {
-            // Also remove any votes for this party
-            currentElection.getCastVotes().removeIf(vote -> vote.getVotedParty().equals(party));
+        if (removePartyAndVotes(party)) {
+            BallotLog log = ballotLog;
+            // Ballots for a party whose name does not fit were never logged
+            if (log != null && BallotLog.fits(null, party.getName(), null)) {
+                // Without this the party and its ballots would come back on the next replay
+                try {
+                    log.appendPartyRemoval(party.getName(), System.currentTimeMillis());
+                } catch (IOException e) {
+                    System.err.println("Error writing party removal to ballot log: " + e.getMessage());
+                }
+            }
             System.out.println("Party " + party.getName() + " removed successfully.");
         } else {
             System.out.println("Party not found for removal.");
         }
     }
 
+    private boolean removePartyAndVotes(Party party) {
+        if (!currentElection.getPoliticalParties().remove(party)) {
+            return false;
+        }
+        // Also remove any votes for this party
+        currentElection.removeVotesForParty(party);
+        Alliance alliance = currentElection.findAlliance(party);
+        if (alliance != null) {
+            alliance.removeMember(party);
+        }
+        invalidateSeatProjection();
+        return true;
+    }
+
     public Party findPartyByName(String name) {
         return currentElection.getPoliticalParties().stream()
                 .filter(party -> party.getName().equalsIgnoreCase(name))
@@ -191,6 +975,7 @@ public class ElectionService {
     public void setTotalSeats(int totalSeats) {
         if (totalSeats > 0) {
             currentElection.setTotalSeats(totalSeats);
+            invalidateSeatProjection();
             System.out.println("Total seats updated to " + totalSeats);
         } else {
             System.out.println("Total seats must be a positive number.");
@@ -198,11 +983,17 @@ public class ElectionService {
     }
 
     public void resetElection() {
-        currentElection.getCastVotes().clear();
+        currentElection.clearVotes();
+        BallotLog log = ballotLog;
+        if (log != null) {
+            // Otherwise the next start would replay every discarded ballot
+            log.truncate();
+        }
         currentElection.getPoliticalParties().forEach(party -> {
             party.setVotes(0);
             party.setSeats(0);
         });
+        invalidateSeatProjection();
         System.out.println("Election reset successfully.");
     }
 
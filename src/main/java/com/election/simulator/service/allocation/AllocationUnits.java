@@ -0,0 +1,85 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Maps parties onto allocation units. A party that runs alone is its own
+ * unit; the members of an alliance share one unit whose votes are pooled for
+ * the threshold and the allocation, after which the alliance's seats are
+ * apportioned among its member lists.
+ */
+public final class AllocationUnits {
+    private final int[] unitOf;
+    private final int[][] members;
+
+    /**
+     * @param unitOf unit index for each party, with units numbered from 0
+     * @param unitCount number of distinct units
+     */
+    public AllocationUnits(int[] unitOf, int unitCount) {
+        this.unitOf = unitOf;
+        int[] sizes = new int[unitCount];
+        for (int unit : unitOf) {
+            sizes[unit]++;
+        }
+        this.members = new int[unitCount][];
+        for (int u = 0; u < unitCount; u++) {
+            members[u] = new int[sizes[u]];
+            sizes[u] = 0;
+        }
+        for (int p = 0; p < unitOf.length; p++) {
+            int unit = unitOf[p];
+            members[unit][sizes[unit]++] = p;
+        }
+    }
+
+    public int getUnitCount() {
+        return members.length;
+    }
+
+    public int getUnitOf(int party) {
+        return unitOf[party];
+    }
+
+    public int[] getMembers(int unit) {
+        return members[unit];
+    }
+
+    /**
+     * Sums party votes into unitVotes[0..unitCount).
+     */
+    public void mergeVotes(long[] partyVotes, long[] unitVotes) {
+        for (int u = 0; u < members.length; u++) {
+            unitVotes[u] = 0;
+        }
+        for (int p = 0; p < unitOf.length; p++) {
+            unitVotes[unitOf[p]] += partyVotes[p];
+        }
+    }
+
+    /**
+     * Distributes each unit's seats to its member parties. Single-party units
+     * pass their seats straight through; alliances split theirs with the given
+     * strategy over the members' own votes.
+     */
+    public void apportion(int[] unitSeats, long[] partyVotes, SeatAllocationStrategy strategy, int[] partySeats) {
+        for (int u = 0; u < members.length; u++) {
+            int[] unitMembers = members[u];
+            if (unitMembers.length == 1) {
+                partySeats[unitMembers[0]] = unitSeats[u];
+                continue;
+            }
+            long[] memberVotes = new long[unitMembers.length];
+            int[] memberSeats = new int[unitMembers.length];
+            long memberTotal = 0;
+            for (int m = 0; m < unitMembers.length; m++) {
+                memberVotes[m] = partyVotes[unitMembers[m]];
+                memberTotal += memberVotes[m];
+            }
+            if (unitSeats[u] > 0 && memberTotal > 0) {
+                strategy.allocate(memberVotes, unitMembers.length, unitSeats[u], memberSeats);
+            }
+            for (int m = 0; m < unitMembers.length; m++) {
+                partySeats[unitMembers[m]] = memberSeats[m];
+            }
+        }
+    }
+}
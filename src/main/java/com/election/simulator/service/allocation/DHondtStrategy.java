@@ -0,0 +1,17 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * D'Hondt (Jefferson) method: divisors 1, 2, 3, ...
+ */
+public class DHondtStrategy extends DivisorMethodStrategy {
+
+    @Override
+    public String getName() {
+        return "D'Hondt";
+    }
+
+    @Override
+    protected long divisor(int seatsWon) {
+        return seatsWon + 1L;
+    }
+}
@@ -0,0 +1,93 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Base class for highest-averages methods. Each party's next quotient is
+ * votes / divisor(seatsWon); seats are handed out one at a time to the best
+ * quotient using a max-heap of party indices, so a full allocation costs
+ * O(S log P) and performs no allocation once the heap has been sized.
+ * The heap is kept per thread, so one instance can serve parallel callers.
+ */
+public abstract class DivisorMethodStrategy implements SeatAllocationStrategy {
+    private final ThreadLocal<int[]> heaps = ThreadLocal.withInitial(() -> new int[16]);
+
+    /**
+     * Divisor applied to a party that has already won seatsWon seats. Values
+     * are integers scaled by a common factor so quotients can be compared
+     * exactly by cross-multiplication.
+     */
+    protected abstract long divisor(int seatsWon);
+
+    @Override
+    public void allocate(long[] votes, int partyCount, int totalSeats, int[] seats) {
+        for (int i = 0; i < partyCount; i++) {
+            seats[i] = 0;
+        }
+        allocateAdditional(votes, partyCount, totalSeats, seats);
+    }
+
+    /**
+     * Continues an allocation: hands out additionalSeats on top of the seats
+     * already recorded in seats[0..partyCount).
+     */
+    public void allocateAdditional(long[] votes, int partyCount, int additionalSeats, int[] seats) {
+        if (partyCount == 0 || additionalSeats <= 0) {
+            return;
+        }
+        int[] heap = heaps.get();
+        if (heap.length < partyCount) {
+            heap = new int[Math.max(partyCount, heap.length * 2)];
+            heaps.set(heap);
+        }
+        for (int i = 0; i < partyCount; i++) {
+            heap[i] = i;
+        }
+        for (int i = (partyCount >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, partyCount, i, votes, seats);
+        }
+        for (int i = 0; i < additionalSeats; i++) {
+            // The top party's quotient only gets worse once it wins a seat
+            seats[heap[0]]++;
+            siftDown(heap, partyCount, 0, votes, seats);
+        }
+    }
+
+    /**
+     * Orders two parties' next quotients: negative when party a ranks ahead of
+     * party b for the next seat.
+     */
+    public int compareNextQuotients(long[] votes, int[] seats, int a, int b) {
+        return compareQuotients(votes[a], divisor(seats[a]), a, votes[b], divisor(seats[b]), b);
+    }
+
+    /**
+     * Orders two individual quotients votesA / divisorA and votesB / divisorB
+     * using the strategy tie-break: higher quotient, then more votes, then
+     * lower party index.
+     */
+    protected static int compareQuotients(long votesA, long divisorA, int a, long votesB, long divisorB, int b) {
+        int byQuotient = Long.compare(votesB * divisorA, votesA * divisorB);
+        if (byQuotient != 0) {
+            return byQuotient;
+        }
+        int byVotes = Long.compare(votesB, votesA);
+        return byVotes != 0 ? byVotes : Integer.compare(a, b);
+    }
+
+    private void siftDown(int[] heap, int heapSize, int index, long[] votes, int[] seats) {
+        int party = heap[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && compareNextQuotients(votes, seats, heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (compareNextQuotients(votes, seats, party, heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = party;
+    }
+}
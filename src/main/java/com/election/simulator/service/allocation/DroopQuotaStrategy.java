@@ -0,0 +1,22 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Largest remainders with the Droop quota floor(totalVotes / (totalSeats + 1)) + 1.
+ */
+public class DroopQuotaStrategy extends LargestRemainderStrategy {
+
+    @Override
+    public String getName() {
+        return "Droop Quota";
+    }
+
+    @Override
+    protected long quotaNumerator(long totalVotes, int totalSeats) {
+        return totalVotes / (totalSeats + 1L) + 1;
+    }
+
+    @Override
+    protected long quotaDenominator(long totalVotes, int totalSeats) {
+        return 1;
+    }
+}
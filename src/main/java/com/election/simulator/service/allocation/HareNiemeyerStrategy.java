@@ -0,0 +1,23 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Hare-Niemeyer (Hamilton) method: largest remainders with the Hare quota
+ * totalVotes / totalSeats.
+ */
+public class HareNiemeyerStrategy extends LargestRemainderStrategy {
+
+    @Override
+    public String getName() {
+        return "Hare-Niemeyer";
+    }
+
+    @Override
+    protected long quotaNumerator(long totalVotes, int totalSeats) {
+        return totalVotes;
+    }
+
+    @Override
+    protected long quotaDenominator(long totalVotes, int totalSeats) {
+        return totalSeats;
+    }
+}
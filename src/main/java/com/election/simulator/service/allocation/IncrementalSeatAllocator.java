@@ -0,0 +1,109 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Keeps a divisor-method seat allocation up to date as votes arrive.
+ *
+ * Adding votes to one party only improves that party's quotients; every other
+ * quotient keeps its rank. The new allocation is therefore the old one with
+ * zero or more seats moved to that party from the weakest current holders.
+ * update() applies every party whose tally grew since the previous call by
+ * repairing those marginal seats, which costs O(P) per moved seat instead of
+ * a full O(S log P) reallocation. Anything
+ * that is not a pure increase (a reset, a removed party, a changed seat
+ * count) falls back to a full allocation.
+ */
+public class IncrementalSeatAllocator {
+    private final DivisorMethodStrategy strategy;
+    private long[] votes = new long[0];
+    private int[] seats = new int[0];
+    private int partyCount;
+    private int totalSeats;
+    private boolean valid;
+
+    public IncrementalSeatAllocator(DivisorMethodStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public DivisorMethodStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Brings the allocation in line with currentVotes and copies the seat
+     * vector into seatsOut[0..partyCount).
+     */
+    public synchronized void update(long[] currentVotes, int partyCount, int totalSeats, int[] seatsOut) {
+        if (!valid || partyCount != this.partyCount || totalSeats != this.totalSeats || hasDecrease(currentVotes, partyCount)) {
+            rebuild(currentVotes, partyCount, totalSeats);
+        } else {
+            for (int i = 0; i < partyCount; i++) {
+                if (currentVotes[i] != votes[i]) {
+                    votes[i] = currentVotes[i];
+                    repair(i);
+                }
+            }
+        }
+        System.arraycopy(seats, 0, seatsOut, 0, partyCount);
+    }
+
+    public synchronized void invalidate() {
+        valid = false;
+    }
+
+    private boolean hasDecrease(long[] currentVotes, int partyCount) {
+        for (int i = 0; i < partyCount; i++) {
+            if (currentVotes[i] < votes[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rebuild(long[] currentVotes, int partyCount, int totalSeats) {
+        if (votes.length < partyCount) {
+            votes = new long[partyCount];
+            seats = new int[partyCount];
+        }
+        System.arraycopy(currentVotes, 0, votes, 0, partyCount);
+        strategy.allocate(votes, partyCount, totalSeats, seats);
+        this.partyCount = partyCount;
+        this.totalSeats = totalSeats;
+        this.valid = true;
+    }
+
+    /**
+     * Moves seats to party p while its next quotient outranks the weakest
+     * seat held by any other party.
+     */
+    private void repair(int p) {
+        while (true) {
+            int weakest = -1;
+            for (int j = 0; j < partyCount; j++) {
+                if (j == p || seats[j] == 0) {
+                    continue;
+                }
+                if (weakest == -1 || compareLastWon(j, weakest) > 0) {
+                    weakest = j;
+                }
+            }
+            if (weakest == -1) {
+                return;
+            }
+            int byQuotient = DivisorMethodStrategy.compareQuotients(
+                    votes[p], strategy.divisor(seats[p]), p,
+                    votes[weakest], strategy.divisor(seats[weakest] - 1), weakest);
+            if (byQuotient >= 0) {
+                return;
+            }
+            seats[p]++;
+            seats[weakest]--;
+        }
+    }
+
+    // Orders the quotients that won parties a and b their last seat
+    private int compareLastWon(int a, int b) {
+        return DivisorMethodStrategy.compareQuotients(
+                votes[a], strategy.divisor(seats[a] - 1), a,
+                votes[b], strategy.divisor(seats[b] - 1), b);
+    }
+}
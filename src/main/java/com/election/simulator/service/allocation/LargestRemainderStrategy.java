@@ -0,0 +1,72 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Base class for largest-remainder methods. Each party first receives
+ * floor(votes / quota) seats; the seats left over go to the parties with the
+ * largest remainders. The quota is expressed as the fraction
+ * quotaNumerator / quotaDenominator so all arithmetic stays exact.
+ * Parties without votes never receive a remainder seat, so a unit zeroed
+ * by a threshold stays at zero seats. When the quota is so small that every
+ * party with votes has had a remainder seat (fewer votes than seats under
+ * the Droop quota), further rounds go to those parties by votes.
+ * Remainder scratch space is kept per thread.
+ */
+public abstract class LargestRemainderStrategy implements SeatAllocationStrategy {
+    private final ThreadLocal<long[]> scratch = ThreadLocal.withInitial(() -> new long[16]);
+
+    protected abstract long quotaNumerator(long totalVotes, int totalSeats);
+
+    protected abstract long quotaDenominator(long totalVotes, int totalSeats);
+
+    @Override
+    public void allocate(long[] votes, int partyCount, int totalSeats, int[] seats) {
+        long totalVotes = 0;
+        for (int i = 0; i < partyCount; i++) {
+            seats[i] = 0;
+            totalVotes += votes[i];
+        }
+        if (totalVotes == 0 || totalSeats <= 0) {
+            return;
+        }
+        long[] remainders = scratch.get();
+        if (remainders.length < partyCount) {
+            remainders = new long[Math.max(partyCount, remainders.length * 2)];
+            scratch.set(remainders);
+        }
+
+        long numerator = quotaNumerator(totalVotes, totalSeats);
+        long denominator = quotaDenominator(totalVotes, totalSeats);
+        int allocated = 0;
+        for (int i = 0; i < partyCount; i++) {
+            long scaled = votes[i] * denominator;
+            seats[i] = (int) (scaled / numerator);
+            // A taken remainder, or a party without votes, is marked -1
+            remainders[i] = votes[i] == 0 ? -1 : scaled % numerator;
+            allocated += seats[i];
+        }
+
+        // Hand out the remaining seats one by one
+        for (int left = totalSeats - allocated; left > 0; left--) {
+            int best = -1;
+            for (int i = 0; i < partyCount; i++) {
+                if (remainders[i] < 0) {
+                    continue;
+                }
+                if (best == -1 || remainders[i] > remainders[best]
+                        || (remainders[i] == remainders[best] && votes[i] > votes[best])) {
+                    best = i;
+                }
+            }
+            if (best == -1) {
+                // Every party with votes already received a remainder seat; start another round
+                for (int i = 0; i < partyCount; i++) {
+                    remainders[i] = votes[i] == 0 ? -1 : 0;
+                }
+                left++;
+                continue;
+            }
+            seats[best]++;
+            remainders[best] = -1;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Modified Sainte-Laguë method as used in the Nordic countries: the first
+ * divisor is 1.4 instead of 1, followed by 3, 5, 7, ... Divisors are scaled
+ * by 5 to keep them integral (7, 15, 25, ...).
+ */
+public class ModifiedSainteLagueStrategy extends DivisorMethodStrategy {
+
+    @Override
+    public String getName() {
+        return "Modified Sainte-Laguë";
+    }
+
+    @Override
+    protected long divisor(int seatsWon) {
+        return seatsWon == 0 ? 7L : 5L * (2L * seatsWon + 1);
+    }
+}
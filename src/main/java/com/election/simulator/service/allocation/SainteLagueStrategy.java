@@ -0,0 +1,17 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Sainte-Laguë (Webster) method: divisors 1, 3, 5, ...
+ */
+public class SainteLagueStrategy extends DivisorMethodStrategy {
+
+    @Override
+    public String getName() {
+        return "Sainte-Laguë";
+    }
+
+    @Override
+    protected long divisor(int seatsWon) {
+        return 2L * seatsWon + 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * A proportional seat allocation method.
+ *
+ * Strategies work on primitive tallies so that several methods can be run
+ * over the same snapshot of votes without touching the shared Party objects.
+ * Implementations do not allocate during allocate(); any scratch space is
+ * kept per thread and reused between calls, so a single instance may be
+ * shared by parallel allocations.
+ */
+public interface SeatAllocationStrategy {
+
+    String getName();
+
+    /**
+     * Allocates totalSeats among the first partyCount entries of votes and
+     * writes the result to seats[0..partyCount). Ties are resolved in favour
+     * of the party with more votes, then the party with the lower index.
+     */
+    void allocate(long[] votes, int partyCount, int totalSeats, int[] seats);
+}
@@ -0,0 +1,40 @@
+package com.election.simulator.service.allocation;
+
+/**
+ * Electoral threshold stage. Runs on the primitive unit tallies before the
+ * allocation method and removes the votes of every unit that neither reaches
+ * its threshold nor holds an exemption.
+ */
+public final class ThresholdFilter {
+
+    private ThresholdFilter() {
+    }
+
+    /**
+     * Zeroes votes[i] for every unit below thresholdPercent[i] of totalVotes
+     * unless exempt[i] is set, and records the outcome in eligible[i]. A
+     * threshold of 0 admits every unit.
+     */
+    public static void apply(long[] votes, int unitCount, long totalVotes,
+                             double[] thresholdPercent, boolean[] exempt, boolean[] eligible) {
+        for (int i = 0; i < unitCount; i++) {
+            boolean passes = thresholdPercent[i] <= 0
+                    || (totalVotes > 0 && votes[i] * 100.0 >= thresholdPercent[i] * totalVotes);
+            eligible[i] = passes || exempt[i];
+            if (!eligible[i]) {
+                votes[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Zeroes votes[i] for every unit whose eligible[i] flag is not set.
+     */
+    public static void retainEligible(long[] votes, int unitCount, boolean[] eligible) {
+        for (int i = 0; i < unitCount; i++) {
+            if (!eligible[i]) {
+                votes[i] = 0;
+            }
+        }
+    }
+}
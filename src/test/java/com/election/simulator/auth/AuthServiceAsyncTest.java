@@ -0,0 +1,130 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.auth.face.CameraSession;
+import com.election.simulator.auth.face.FaceScanOptions;
+import com.election.simulator.auth.face.LbpFaceMatcher;
+import com.election.simulator.auth.face.SyntheticFrameSource;
+import com.election.simulator.model.Voter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Giving up on an async login or verification must stop the face scan
+ * behind it. The booth has a single worker and synthetic noise frames, in
+ * which no face is ever found, so an abandoned scan that kept running
+ * would hold the worker until its one-minute deadline.
+ */
+class AuthServiceAsyncTest {
+    private static final FaceScanOptions LONG_SCAN = new FaceScanOptions(60_000, 0, LbpFaceMatcher.DEFAULT_THRESHOLD);
+    private static final FaceScanOptions SHORT_SCAN = new FaceScanOptions(200, 0, LbpFaceMatcher.DEFAULT_THRESHOLD);
+
+    private PrintStream console;
+    private final CountDownLatch scanning = new CountDownLatch(1);
+    private FaceRecognitionService faceService;
+    private BoothVerificationService booth;
+    private AuthService auth;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        faceService = new FaceRecognitionService(new CameraSession(() -> new SyntheticFrameSource(30) {
+            @Override
+            public Mat grab() {
+                scanning.countDown();
+                return super.grab();
+            }
+        }, 0));
+        faceService.setConsoleScanOptions(LONG_SCAN);
+        booth = new BoothVerificationService(faceService, 1, 1, 120_000);
+        auth = new AuthService(new PasswordHasher(1, PasswordHasher.DEFAULT_CACHE_TTL_MILLIS), faceService, booth);
+        for (String nationalId : new String[]{"500", "501", "502"}) {
+            float[] descriptor = new float[LbpFaceMatcher.LENGTH];
+            Arrays.fill(descriptor, 1f / descriptor.length);
+            faceService.getDescriptorCache().put(nationalId, descriptor);
+        }
+        auth.registerVoter("ada", "secret", "Ada", "500", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        booth.close();
+        System.setOut(console);
+    }
+
+    @Test
+    void cancellingLoginInterruptsTheScan() throws Exception {
+        CompletableFuture<Voter> login = auth.loginAsync("ada", "secret", null);
+        awaitScan();
+
+        assertTrue(login.cancel(true));
+        assertWorkerFree();
+        assertNull(auth.getCurrentVoter());
+    }
+
+    @Test
+    void timingOutVerificationInterruptsTheScan() throws Exception {
+        Voter voter = new Voter("bob", "", "Bob", "501", false);
+        CompletableFuture<Voter> verification = auth.verifyVoterAsync(voter, null).orTimeout(300, TimeUnit.MILLISECONDS);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> verification.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertWorkerFree();
+    }
+
+    @Test
+    void cancellingVerificationInterruptsTheScan() throws Exception {
+        Voter voter = new Voter("bob", "", "Bob", "501", false);
+        CompletableFuture<Voter> verification = auth.verifyVoterAsync(voter, null);
+        awaitScan();
+
+        assertTrue(verification.cancel(true));
+        assertWorkerFree();
+    }
+
+    @Test
+    void saturatedBoothRejectsFurtherScans() throws Exception {
+        Voter first = new Voter("bob", "", "Bob", "501", false);
+        Voter second = new Voter("cy", "", "Cy", "502", false);
+        // One scanning and one queued fill the booth
+        CompletableFuture<Voter> running = auth.verifyVoterAsync(first, null);
+        CompletableFuture<Voter> queued = auth.verifyVoterAsync(second, null);
+
+        CompletableFuture<Voter> overflow = auth.verifyVoterAsync(first, null);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> overflow.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertFalse(running.isDone());
+
+        running.cancel(true);
+        queued.cancel(true);
+    }
+
+    private void awaitScan() throws InterruptedException {
+        assertTrue(scanning.await(10, TimeUnit.SECONDS), "Scan did not start");
+    }
+
+    // A short scan only gets the single worker once the abandoned one has stopped
+    private void assertWorkerFree() throws Exception {
+        faceService.setConsoleScanOptions(SHORT_SCAN);
+        Voter voter = new Voter("cy", "", "Cy", "502", false);
+        assertNull(auth.verifyVoterAsync(voter, null).get(10, TimeUnit.SECONDS), "Noise frames never match");
+    }
+}
@@ -0,0 +1,122 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.auth.face.CameraSession;
+import com.election.simulator.auth.face.FaceScanOptions;
+import com.election.simulator.auth.face.ImageDirectoryFrameSource;
+import com.election.simulator.auth.face.LbpFaceMatcher;
+import com.election.simulator.auth.face.SyntheticFrameSource;
+import org.bytedeco.javacpp.Pointer;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives BoothVerificationService from several simulated booths at once and
+ * prints throughput, latency percentiles and the service metrics.
+ *
+ * Every booth has its own camera, fed with synthetic 30 fps noise frames
+ * or with the images in a directory, and verifies one voter after another.
+ * Voters get random enrolled descriptors, so with noise frames every scan
+ * runs to its deadline; with real face images the matches depend on them.
+ *
+ * Usage: BoothLoadTest [booths] [workers] [verifications per booth] [image directory]
+ */
+public class BoothLoadTest {
+    private static final long SCAN_DEADLINE_MILLIS = 2_000;
+    private static final long REQUEST_TIMEOUT_MILLIS = 10_000;
+    private static final int VOTERS = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int booths = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int perBooth = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String imageDirectory = args.length > 3 ? args[3] : null;
+
+        List<CameraSession> cameras = new ArrayList<>();
+        for (int i = 0; i < booths; i++) {
+            cameras.add(new CameraSession(() -> imageDirectory != null
+                    ? new ImageDirectoryFrameSource(Paths.get(imageDirectory), true)
+                    : new SyntheticFrameSource(30), 0));
+        }
+        FaceRecognitionService faceService = new FaceRecognitionService(cameras.get(0));
+        Random random = new Random(42);
+        for (int v = 0; v < VOTERS; v++) {
+            faceService.getDescriptorCache().put("LOAD-" + v, randomDescriptor(random));
+        }
+        FaceScanOptions options = new FaceScanOptions(SCAN_DEADLINE_MILLIS, 0, LbpFaceMatcher.DEFAULT_THRESHOLD);
+
+        System.out.println("Booth load test: " + booths + " booths, " + workerCount + " workers, "
+                + perBooth + " verifications per booth");
+        long[] latencies = new long[booths * perBooth];
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (BoothVerificationService service = new BoothVerificationService(faceService, workerCount,
+                booths, REQUEST_TIMEOUT_MILLIS)) {
+            List<Thread> drivers = new ArrayList<>();
+            for (int b = 0; b < booths; b++) {
+                int booth = b;
+                Thread driver = new Thread(() -> {
+                    for (int r = 0; r < perBooth; r++) {
+                        String nationalId = "LOAD-" + ((booth * perBooth + r) % VOTERS);
+                        long requestStart = System.nanoTime();
+                        try {
+                            service.verify(nationalId, cameras.get(booth), options, null).get();
+                        } catch (ExecutionException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[finished.getAndIncrement()] = System.nanoTime() - requestStart;
+                    }
+                }, "booth-" + booth);
+                driver.start();
+                drivers.add(driver);
+            }
+            for (Thread driver : drivers) {
+                driver.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long[] done = Arrays.copyOf(latencies, finished.get());
+            Arrays.sort(done);
+            System.out.printf("%d requests in %.1f s (%.1f verifications/s), %d errors%n",
+                    done.length, seconds, done.length / seconds, errors.get());
+            if (done.length > 0) {
+                System.out.printf("latency p50 %d ms, p95 %d ms, max %d ms%n",
+                        percentileMillis(done, 0.50), percentileMillis(done, 0.95), done[done.length - 1] / 1_000_000);
+            }
+            System.out.println(service);
+            System.out.printf("native %,d KB, physical %,d KB%n", Pointer.totalBytes() / 1024, Pointer.physicalBytes() / 1024);
+        } finally {
+            cameras.forEach(CameraSession::close);
+        }
+    }
+
+    private static float[] randomDescriptor(Random random) {
+        float[] descriptor = new float[LbpFaceMatcher.LENGTH];
+        for (int cell = 0; cell < LbpFaceMatcher.GRID * LbpFaceMatcher.GRID; cell++) {
+            float sum = 0;
+            for (int bin = 0; bin < LbpFaceMatcher.BINS; bin++) {
+                float value = random.nextFloat();
+                descriptor[cell * LbpFaceMatcher.BINS + bin] = value;
+                sum += value;
+            }
+            for (int bin = 0; bin < LbpFaceMatcher.BINS; bin++) {
+                descriptor[cell * LbpFaceMatcher.BINS + bin] /= sum;
+            }
+        }
+        return descriptor;
+    }
+
+    private static long percentileMillis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000;
+    }
+}
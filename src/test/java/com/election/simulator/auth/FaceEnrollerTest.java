@@ -0,0 +1,127 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.auth.face.CameraSession;
+import com.election.simulator.auth.face.FaceFrameProcessor;
+import com.election.simulator.auth.face.LbpFaceMatcher;
+import com.election.simulator.auth.face.SyntheticFrameSource;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs FaceEnroller over a temporary photo directory. The template store
+ * is shared by the process, so every test uses national IDs of its own and
+ * removes them afterwards.
+ */
+class FaceEnrollerTest {
+    @TempDir
+    Path directory;
+
+    private PrintStream console;
+    private FaceRecognitionService faceService;
+    private String registered;
+    private String enrolled;
+    private String unknown;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        faceService = new FaceRecognitionService(new CameraSession(SyntheticFrameSource::new, 0));
+        String run = Long.toString(System.nanoTime());
+        registered = "ENROLL-A-" + run;
+        enrolled = "ENROLL-B-" + run;
+        unknown = "ENROLL-C-" + run;
+        Files.createDirectories(directory.resolve("photos"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String nationalId : new String[]{registered, enrolled, unknown}) {
+            faceService.getTemplateStore().remove(nationalId);
+        }
+        faceService.flushFaceTemplates();
+        System.setOut(console);
+    }
+
+    @Test
+    void photoOfAnUnknownVoterIsReported() throws IOException {
+        Path photo = blankPhoto(unknown);
+        Path failures = directory.resolve("failures.csv");
+
+        FaceEnroller.Result result = enroller().enroll(directory.resolve("photos"), failures);
+
+        assertEquals(1, result.getPhotosRead());
+        assertEquals(1, result.getFailed());
+        assertEquals(0, result.getEnrolled());
+        assertEquals(List.of(photo + ",no registered voter with this national ID"),
+                Files.readAllLines(failures, StandardCharsets.UTF_8));
+        assertFalse(faceService.hasFaceData(unknown));
+    }
+
+    @Test
+    void alreadyEnrolledVoterIsSkipped() throws IOException {
+        try (Mat face = new Mat(FaceFrameProcessor.FACE_SIZE, FaceFrameProcessor.FACE_SIZE, opencv_core.CV_8UC1,
+                Scalar.all(128))) {
+            assertTrue(faceService.storeFaceTemplate(enrolled, face, new float[LbpFaceMatcher.LENGTH]));
+        }
+        blankPhoto(enrolled);
+        Path failures = directory.resolve("failures.csv");
+
+        FaceEnroller.Result result = enroller().enroll(directory.resolve("photos"), failures);
+
+        assertEquals(1, result.getSkipped());
+        assertEquals(0, result.getFailed());
+        assertTrue(Files.readAllLines(failures, StandardCharsets.UTF_8).isEmpty());
+    }
+
+    @Test
+    void photoWithoutAFaceFails() throws IOException {
+        Path photo = blankPhoto(registered);
+        Path failures = directory.resolve("failures.csv");
+
+        FaceEnroller.Result result = enroller().enroll(directory.resolve("photos"), failures);
+
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(photo + ",no face detected"), Files.readAllLines(failures, StandardCharsets.UTF_8));
+        assertFalse(faceService.hasFaceData(registered));
+    }
+
+    private FaceEnroller enroller() {
+        Set<String> voters = Set.of(registered, enrolled);
+        return new FaceEnroller(faceService, voters::contains, false, 2);
+    }
+
+    // A uniform grey picture, which the face detector finds nothing in
+    private Path blankPhoto(String nationalId) throws IOException {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.GRAY);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.dispose();
+        Path photo = directory.resolve("photos").resolve(nationalId + ".png");
+        ImageIO.write(image, "png", photo.toFile());
+        return photo;
+    }
+}
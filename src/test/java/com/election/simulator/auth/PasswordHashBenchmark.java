@@ -0,0 +1,57 @@
+package com.election.simulator.auth;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures login verifications per second per core at several PBKDF2
+ * costs, both through the verification pool and from the cache.
+ *
+ * Usage: PasswordHashBenchmark [iterations...]
+ */
+public class PasswordHashBenchmark {
+    private static final int[] DEFAULT_COSTS = {10_000, 60_000, PasswordHasher.DEFAULT_ITERATIONS, 310_000};
+    private static final long RUN_MILLIS = 3_000;
+
+    public static void main(String[] args) {
+        int[] costs = DEFAULT_COSTS;
+        if (args.length > 0) {
+            costs = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                costs[i] = Integer.parseInt(args[i]);
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Password verification benchmark on " + cores + " cores");
+        System.out.printf("%12s %14s %16s %18s%n", "iterations", "logins/s", "logins/s/core", "cached logins/s");
+        for (int cost : costs) {
+            PasswordHasher hasher = new PasswordHasher(cost, 0);
+            String stored = hasher.hash("benchmark-password");
+            // Warm up the key derivation code before timing
+            for (int i = 0; i < 5; i++) {
+                hasher.verify("benchmark-password", stored);
+            }
+            double uncached = measure(hasher, stored, cores);
+
+            PasswordHasher caching = new PasswordHasher(cost, PasswordHasher.DEFAULT_CACHE_TTL_MILLIS);
+            caching.verifyAsync("user", "benchmark-password", stored).join();
+            double cached = measure(caching, stored, cores);
+
+            System.out.printf("%12d %14.1f %16.1f %18.0f%n", cost, uncached, uncached / cores, cached);
+        }
+    }
+
+    private static double measure(PasswordHasher hasher, String stored, int inFlight) {
+        long start = System.nanoTime();
+        long deadline = start + RUN_MILLIS * 1_000_000;
+        long done = 0;
+        CompletableFuture<?>[] batch = new CompletableFuture<?>[inFlight];
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < inFlight; i++) {
+                batch[i] = hasher.verifyAsync("user", "benchmark-password", stored);
+            }
+            CompletableFuture.allOf(batch).join();
+            done += inFlight;
+        }
+        return done * 1e9 / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,69 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.model.Voter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void expiredVerificationsAreSwept() throws InterruptedException {
+        PasswordHasher hasher = new PasswordHasher(1, 500);
+        String stored = hasher.hash("secret");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(hasher.verifyAsync("user" + i, "secret", stored).join());
+        }
+        assertEquals(100, hasher.getCachedCount());
+
+        Thread.sleep(600);
+        // Another user's login sweeps the expired entries
+        assertTrue(hasher.verifyAsync("late", "secret", stored).join());
+        assertEquals(1, hasher.getCachedCount());
+    }
+
+    @Test
+    void cacheIsCapped() {
+        PasswordHasher hasher = new PasswordHasher(1, PasswordHasher.DEFAULT_CACHE_TTL_MILLIS);
+        String stored = hasher.hash("secret");
+        for (int i = 0; i < PasswordHasher.MAX_CACHE_ENTRIES + 500; i++) {
+            assertTrue(hasher.verifyAsync("user" + i, "secret", stored).join());
+        }
+        assertEquals(PasswordHasher.MAX_CACHE_ENTRIES, hasher.getCachedCount());
+        assertFalse(hasher.verifyAsync("user0", "wrong", stored).join());
+    }
+
+    @Test
+    void importHashesCheaplyAndLoginCostIsRestoredLater() throws IOException {
+        PasswordHasher hasher = new PasswordHasher(50_000, 0);
+        String preHashed = hasher.hash("carol-password");
+        Path roll = directory.resolve("voters.csv");
+        Files.write(roll, Arrays.asList(
+                "username,password,fullName,nationalId",
+                "alice,alice-password,Alice Example,100",
+                "bob,bob-password,Bob Example,200",
+                "carol," + preHashed + ",Carol Example,300"), StandardCharsets.UTF_8);
+
+        VoterRegistry registry = new VoterRegistry();
+        VoterImporter.Result result = new VoterImporter(registry, hasher, 2, 1_000).importFile(roll, null);
+        assertEquals(3, result.getImported());
+
+        Voter alice = registry.findByUsername("alice");
+        assertTrue(alice.getPassword().startsWith("pbkdf2$1000$"));
+        assertTrue(hasher.verify("alice-password", alice.getPassword()));
+        assertTrue(hasher.needsRehash(alice.getPassword()));
+        assertEquals(preHashed, registry.findByUsername("carol").getPassword());
+        assertFalse(hasher.needsRehash(preHashed));
+    }
+}
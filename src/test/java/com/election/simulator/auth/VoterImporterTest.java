@@ -0,0 +1,98 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.model.Voter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoterImporterTest {
+    @TempDir
+    Path directory;
+
+    private final PasswordHasher hasher = new PasswordHasher(1, PasswordHasher.DEFAULT_CACHE_TTL_MILLIS);
+
+    @Test
+    void rejectedRowsKeepTheirFileLineNumbers() throws IOException {
+        VoterRegistry registry = new VoterRegistry();
+        registry.add(new Voter("taken", hasher.hash("pw"), "Taken", "900", false));
+        // Chunks of three rows: lines 2-4, 5-7 and 8-9
+        Path source = write("roll.csv",
+                "username,password,fullName,nationalId,isAdmin",
+                "alice,pw,Alice A,100",
+                "bob,pw,Bob B,101,true",
+                "alice,pw,Alice Again,102",
+                "carol,pw,Carol C,900",
+                "dave,pw,Dave D",
+                "erin,pw,Erin E,103,maybe",
+                "frank,pw,Frank F,101",
+                "gina,,Gina G,104");
+        Path rejects = directory.resolve("out").resolve("rejects.csv");
+
+        VoterImporter.Result result = new VoterImporter(registry, hasher, 3, 1).importFile(source, rejects);
+
+        assertEquals(8, result.getRowsRead(), "Header is not a row");
+        assertEquals(2, result.getImported());
+        assertEquals(6, result.getRejected());
+        assertEquals(List.of(
+                "4,duplicate username or national ID,alice,pw,Alice Again,102",
+                "5,duplicate username or national ID,carol,pw,Carol C,900",
+                "6,expected 4 or 5 columns,dave,pw,Dave D",
+                "7,invalid admin flag,erin,pw,Erin E,103,maybe",
+                "8,duplicate username or national ID,frank,pw,Frank F,101",
+                "9,empty field,gina,,Gina G,104"), Files.readAllLines(rejects, StandardCharsets.UTF_8));
+
+        assertEquals(3, registry.size());
+        assertEquals("Alice A", registry.findByUsername("alice").getFullName());
+        assertTrue(registry.findByNationalId("101").isAdmin());
+        assertNull(registry.findByNationalId("102"));
+    }
+
+    @Test
+    void firstLineIsDataWithoutAHeader() throws IOException {
+        VoterRegistry registry = new VoterRegistry();
+        Path source = write("roll.csv",
+                "alice,pw,Alice A,100",
+                "alice,pw,Alice B,101");
+        Path rejects = directory.resolve("rejects.csv");
+
+        VoterImporter.Result result = new VoterImporter(registry, hasher, 10, 1).importFile(source, rejects);
+
+        assertEquals(2, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of("2,duplicate username or national ID,alice,pw,Alice B,101"),
+                Files.readAllLines(rejects, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void plainPasswordsAreHashedAndHashedOnesKept() throws IOException {
+        VoterRegistry registry = new VoterRegistry();
+        String prehashed = hasher.hash("other");
+        Path source = write("roll.csv",
+                "alice,secret,Alice A,100",
+                "bob," + prehashed + ",Bob B,101");
+
+        new VoterImporter(registry, hasher, 10, 1).importFile(source, null);
+
+        String stored = registry.findByUsername("alice").getPassword();
+        assertTrue(PasswordHasher.isHashed(stored));
+        assertTrue(hasher.verify("secret", stored));
+        assertFalse(hasher.verify("other", stored));
+        assertEquals(prehashed, registry.findByUsername("bob").getPassword());
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,81 @@
+package com.election.simulator.auth;
+
+import com.election.simulator.model.Voter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoterRegistryTest {
+    @Test
+    void pagesFollowRegistrationOrderAfterRemoval() {
+        VoterRegistry registry = new VoterRegistry();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(registry.add(voter(i)));
+        }
+        assertFalse(registry.add(voter(3)));
+        assertEquals("voter3", registry.remove("voter3").getUsername());
+        assertNull(registry.findByNationalId("1003"));
+
+        assertEquals(List.of("voter0", "voter1", "voter2", "voter4"), usernames(registry.getPage(0, 4)));
+        assertEquals(List.of("voter5", "voter6", "voter7", "voter8"), usernames(registry.getPage(4, 4)));
+        assertEquals(List.of("voter9"), usernames(registry.getPage(8, 4)));
+        assertTrue(registry.getPage(9, 4).isEmpty());
+        assertTrue(registry.getPage(50, 4).isEmpty());
+        assertEquals(9, (int) registry.withAll(Collection::size));
+    }
+
+    @Test
+    void fullRosterIsReadInPlace() {
+        VoterRegistry registry = new VoterRegistry();
+        registry.add(voter(0));
+        registry.add(new Voter("chief", "hash", "Chief", "999", true));
+        registry.add(voter(1));
+
+        assertEquals(List.of("voter0", "chief", "voter1"),
+                registry.withAll(all -> usernames(new ArrayList<>(all))));
+        assertThrows(UnsupportedOperationException.class, () -> registry.withAll(all -> all.remove(all.iterator().next())));
+        assertEquals(3, registry.size());
+        assertTrue(registry.anyMatch(Voter::isAdmin));
+        registry.remove("chief");
+        assertFalse(registry.anyMatch(Voter::isAdmin));
+    }
+
+    @Test
+    void pagingThroughManyVotersIsLinear() {
+        int count = 500_000;
+        VoterRegistry registry = new VoterRegistry(count);
+        List<Voter> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(voter(i));
+        }
+        assertEquals(count, registry.addAll(batch, i -> { }));
+
+        long start = System.nanoTime();
+        int seen = 0;
+        for (int offset = 0; offset < count; offset += 100) {
+            seen += registry.getPage(offset, 100).size();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(count, seen);
+        // Walking from the start for every page took minutes at this size
+        assertTrue(millis < 5_000, "Paging took " + millis + " ms");
+    }
+
+    private static Voter voter(int i) {
+        return new Voter("voter" + i, "hash", "Voter " + i, String.valueOf(1000 + i), false);
+    }
+
+    private static List<String> usernames(List<Voter> voters) {
+        List<String> names = new ArrayList<>();
+        voters.forEach(voter -> names.add(voter.getUsername()));
+        return names;
+    }
+}
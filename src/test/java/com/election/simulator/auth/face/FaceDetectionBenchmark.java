@@ -0,0 +1,92 @@
+package com.election.simulator.auth.face;
+
+import com.election.simulator.auth.FaceRecognitionService;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.RectVector;
+import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares detections per second of the original full-resolution
+ * detectMultiScale call with FaceDetector on a recorded clip.
+ *
+ * Usage: FaceDetectionBenchmark <video file | image directory> [passes]
+ */
+public class FaceDetectionBenchmark {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: FaceDetectionBenchmark <video file | image directory> [passes]");
+            return;
+        }
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<Mat> clip = loadGrayClip(args[0]);
+        System.out.println("Loaded " + clip.size() + " frames from " + args[0]);
+
+        try (CascadeClassifier classifier = new CascadeClassifier(FaceRecognitionService.HAARCASCADE_PATH)) {
+            // Original call: default parameters on every full frame
+            long found = 0;
+            long start = System.nanoTime();
+            try (RectVector faces = new RectVector()) {
+                for (int pass = 0; pass < passes; pass++) {
+                    for (Mat gray : clip) {
+                        classifier.detectMultiScale(gray, faces);
+                        if (faces.size() > 0) {
+                            found++;
+                        }
+                    }
+                }
+            }
+            report("detectMultiScale (full frame)", passes * clip.size(), found, System.nanoTime() - start);
+
+            found = 0;
+            start = System.nanoTime();
+            try (FaceDetector detector = new FaceDetector(classifier); Rect face = new Rect()) {
+                for (int pass = 0; pass < passes; pass++) {
+                    detector.reset();
+                    for (Mat gray : clip) {
+                        if (detector.detect(gray, face)) {
+                            found++;
+                        }
+                    }
+                }
+                report("FaceDetector (downscaled + tracking)", passes * clip.size(), found, System.nanoTime() - start);
+                System.out.println("  full-frame searches: " + detector.getFullSearches()
+                        + ", tracked searches: " + detector.getTrackedSearches());
+            }
+        } finally {
+            clip.forEach(Mat::close);
+        }
+    }
+
+    private static List<Mat> loadGrayClip(String path) throws IOException {
+        FrameSource source = Files.isDirectory(Paths.get(path))
+                ? new ImageDirectoryFrameSource(Paths.get(path), false)
+                : new GrabberFrameSource(path);
+        List<Mat> clip = new ArrayList<>();
+        source.start();
+        try {
+            Mat frame;
+            while ((frame = source.grab()) != null) {
+                Mat gray = new Mat();
+                opencv_imgproc.cvtColor(frame, gray, opencv_imgproc.COLOR_BGR2GRAY);
+                opencv_imgproc.equalizeHist(gray, gray);
+                clip.add(gray);
+            }
+        } finally {
+            source.stop();
+        }
+        return clip;
+    }
+
+    private static void report(String name, long frames, long found, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-38s %8.1f detections/s, face in %d of %d frames%n", name, frames / seconds, found, frames);
+    }
+}
@@ -0,0 +1,59 @@
+package com.election.simulator.auth.face;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures FaceIndex top-k query latency over synthetic enrolled faces.
+ *
+ * Usage: FaceIndexBenchmark [templates] [k]
+ */
+public class FaceIndexBenchmark {
+    private static final int QUERIES = 20;
+
+    public static void main(String[] args) {
+        int templates = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        FaceIndex index = new FaceIndex();
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        float[] probe = null;
+        for (int i = 0; i < templates; i++) {
+            float[] embedding = randomUnitVector(random, index.getDimensions());
+            if (i == templates / 2) {
+                probe = embedding;
+            }
+            index.addEmbedding("voter_" + i, embedding);
+        }
+        System.out.printf("Indexed %,d templates in %.1f s%n", templates, (System.nanoTime() - start) / 1e9);
+
+        List<FaceIndex.Match> matches = null;
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            long t = System.nanoTime();
+            matches = index.searchEmbedding(probe, k);
+            long elapsed = System.nanoTime() - t;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        System.out.printf("Top-%d query: best %.1f ms, mean %.1f ms on %d cores%n",
+                k, best / 1e6, total / 1e6 / QUERIES, Runtime.getRuntime().availableProcessors());
+        System.out.println("Matches: " + matches);
+    }
+
+    private static float[] randomUnitVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        double norm = 0;
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = (float) random.nextGaussian();
+            norm += vector[d] * vector[d];
+        }
+        float inverse = (float) (1.0 / Math.sqrt(norm));
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] *= inverse;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,39 @@
+package com.election.simulator.auth.face;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FaceIndexTest {
+    @Test
+    void searchReturnsBestMatchesFirst() {
+        FaceIndex index = new FaceIndex(16);
+        for (int i = 0; i < 5; i++) {
+            index.addEmbedding(String.valueOf(i), axis(16, i));
+        }
+
+        List<FaceIndex.Match> matches = index.searchEmbedding(axis(16, 3), 2);
+        assertEquals(2, matches.size());
+        assertEquals("3", matches.get(0).getNationalId());
+        assertEquals(1.0, matches.get(0).getSimilarity(), 1e-6);
+        assertEquals(5, index.searchEmbedding(axis(16, 3), 10).size(), "k larger than the index");
+    }
+
+    @Test
+    void nonPositiveKFindsNothing() {
+        FaceIndex index = new FaceIndex(16);
+        index.addEmbedding("1", axis(16, 1));
+
+        assertTrue(index.searchEmbedding(axis(16, 1), 0).isEmpty());
+        assertTrue(index.searchEmbedding(axis(16, 1), -1).isEmpty());
+    }
+
+    private static float[] axis(int dimensions, int axis) {
+        float[] embedding = new float[dimensions];
+        embedding[axis] = 1;
+        return embedding;
+    }
+}
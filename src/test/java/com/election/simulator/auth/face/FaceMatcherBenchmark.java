@@ -0,0 +1,135 @@
+package com.election.simulator.auth.face;
+
+import com.election.simulator.auth.FaceRecognitionService;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Speed and accuracy harness for LbpFaceMatcher over a local image set.
+ *
+ * The image set has one subdirectory per person. Every image is run
+ * through the same detection and normalization as enrollment (images
+ * without a detectable face are assumed to be pre-cropped). All pairs are
+ * then compared, and false accept / false reject rates are printed per
+ * threshold together with the equal error rate.
+ *
+ * Usage: FaceMatcherBenchmark <image set directory>
+ */
+public class FaceMatcherBenchmark {
+    private static class Sample {
+        final String person;
+        final float[] descriptor;
+
+        Sample(String person, float[] descriptor) {
+            this.person = person;
+            this.descriptor = descriptor;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: FaceMatcherBenchmark <image set directory>");
+            return;
+        }
+        LbpFaceMatcher matcher = new LbpFaceMatcher();
+        List<Sample> samples = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long extractNanos = 0;
+        try (CascadeClassifier classifier = new CascadeClassifier(FaceRecognitionService.HAARCASCADE_PATH);
+             Stream<Path> people = Files.list(Paths.get(args[0]))) {
+            for (Path personDir : people.filter(Files::isDirectory).sorted().collect(Collectors.toList())) {
+                List<Path> images;
+                try (Stream<Path> files = Files.list(personDir)) {
+                    images = files.filter(ImageDirectoryFrameSource::isImage).sorted().collect(Collectors.toList());
+                }
+                for (Path image : images) {
+                    try (Mat frame = opencv_imgcodecs.imread(image.toString(), opencv_imgcodecs.IMREAD_COLOR);
+                         FaceFrameProcessor processor = new FaceFrameProcessor(classifier)) {
+                        if (frame.empty()) {
+                            continue;
+                        }
+                        Mat face = processor.process(frame);
+                        Mat wholeImage = face == null ? normalizeWholeImage(frame) : null;
+                        long t = System.nanoTime();
+                        float[] descriptor = matcher.describe(face != null ? face : wholeImage);
+                        extractNanos += System.nanoTime() - t;
+                        if (wholeImage != null) {
+                            wholeImage.close();
+                        }
+                        samples.add(new Sample(personDir.getFileName().toString(), descriptor));
+                    }
+                }
+            }
+        }
+        System.out.printf("Loaded %d images in %.1f s; descriptor extraction %.0f faces/s%n",
+                samples.size(), (System.nanoTime() - start) / 1e9, samples.size() / (extractNanos / 1e9));
+
+        List<Double> genuine = new ArrayList<>();
+        List<Double> impostor = new ArrayList<>();
+        start = System.nanoTime();
+        for (int i = 0; i < samples.size(); i++) {
+            for (int j = i + 1; j < samples.size(); j++) {
+                double similarity = matcher.similarity(samples.get(i).descriptor, samples.get(j).descriptor);
+                (samples.get(i).person.equals(samples.get(j).person) ? genuine : impostor).add(similarity);
+            }
+        }
+        long comparisons = genuine.size() + impostor.size();
+        System.out.printf("%d comparisons (%d genuine, %d impostor) at %.0f comparisons/s%n",
+                comparisons, genuine.size(), impostor.size(), comparisons / ((System.nanoTime() - start) / 1e9));
+        if (genuine.isEmpty() || impostor.isEmpty()) {
+            System.out.println("Need at least two people with two images each for accuracy figures.");
+            return;
+        }
+
+        System.out.printf("%10s %10s %10s%n", "threshold", "FAR", "FRR");
+        double eerThreshold = 0;
+        double eer = 1;
+        for (int step = 0; step <= 100; step++) {
+            double threshold = step / 100.0;
+            double far = fractionAbove(impostor, threshold);
+            double frr = 1 - fractionAbove(genuine, threshold);
+            if (step % 5 == 0) {
+                System.out.printf("%10.2f %9.2f%% %9.2f%%%n", threshold, far * 100, frr * 100);
+            }
+            if (Math.max(far, frr) < eer) {
+                eer = Math.max(far, frr);
+                eerThreshold = threshold;
+            }
+        }
+        System.out.printf("Equal error rate about %.2f%% at threshold %.2f (default %.2f)%n",
+                eer * 100, eerThreshold, LbpFaceMatcher.DEFAULT_THRESHOLD);
+    }
+
+    private static Mat normalizeWholeImage(Mat frame) {
+        Mat gray = new Mat();
+        opencv_imgproc.cvtColor(frame, gray, opencv_imgproc.COLOR_BGR2GRAY);
+        opencv_imgproc.equalizeHist(gray, gray);
+        try (Size size = new Size(FaceFrameProcessor.FACE_SIZE, FaceFrameProcessor.FACE_SIZE)) {
+            opencv_imgproc.resize(gray, gray, size);
+        }
+        return gray;
+    }
+
+    private static double fractionAbove(List<Double> values, double threshold) {
+        long above = 0;
+        for (double value : values) {
+            if (value > threshold) {
+                above++;
+            }
+        }
+        return (double) above / values.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.election.simulator.auth.face;
+
+import com.election.simulator.auth.FaceRecognitionService;
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Pushes many frames through CameraSession and FaceFrameProcessor and
+ * prints native memory use as it goes, which should stay flat.
+ *
+ * Usage: FaceProcessingSoak [frames] [image file or directory]
+ * Without an image path, synthetic noise frames are used.
+ */
+public class FaceProcessingSoak {
+    private static final int DEFAULT_FRAMES = 100_000;
+    private static final int REPORT_EVERY = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        CameraSession session = new CameraSession(() -> args.length > 1
+                ? new ImageDirectoryFrameSource(Paths.get(args[1]), true)
+                : new SyntheticFrameSource(), 0);
+        CascadeClassifier classifier = new CascadeClassifier(FaceRecognitionService.HAARCASCADE_PATH);
+
+        long start = System.nanoTime();
+        int detected = 0;
+        try (CameraSession.Lease camera = session.acquire();
+             FaceFrameProcessor processor = new FaceFrameProcessor(classifier)) {
+            for (int i = 1; i <= frames; i++) {
+                Mat image = camera.grab();
+                if (image != null && processor.process(image) != null) {
+                    detected++;
+                }
+                if (i % REPORT_EVERY == 0) {
+                    System.out.printf("%,d frames, %d faces, native %,d KB, physical %,d KB%n",
+                            i, detected, Pointer.totalBytes() / 1024, Pointer.physicalBytes() / 1024);
+                }
+            }
+        } finally {
+            classifier.close();
+            session.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Processed %,d frames in %.1f s (%.0f frames/s)%n", frames, seconds, frames / seconds);
+    }
+}
@@ -0,0 +1,83 @@
+package com.election.simulator.auth.face;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FaceTemplateStoreTest {
+    // Header size and status byte position of slot 0, as laid out by FaceTemplateStore
+    private static final long FIRST_RECORD = 4096;
+    private static final byte LIVE = 1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replacementKeepsOneTemplatePerVoter() throws IOException {
+        Path file = directory.resolve("faces.bin");
+        try (FaceTemplateStore store = FaceTemplateStore.open(file)) {
+            store.put("100", face(1), descriptor(1));
+            store.put("200", face(2), descriptor(2));
+            store.put("100", face(3), descriptor(3));
+            assertEquals(2, store.size());
+            assertArrayEquals(face(3), store.readFace("100"));
+            assertArrayEquals(descriptor(3), store.readDescriptor("100"));
+            assertArrayEquals(face(2), store.readFace("200"));
+        }
+        try (FaceTemplateStore store = FaceTemplateStore.open(file)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(descriptor(3), store.readDescriptor("100"));
+        }
+    }
+
+    @Test
+    void newerRecordWinsWhenReplacementWasInterrupted() throws IOException {
+        Path file = directory.resolve("faces.bin");
+        try (FaceTemplateStore store = FaceTemplateStore.open(file)) {
+            store.put("100", face(1), descriptor(1));
+            store.put("100", face(2), descriptor(2));
+        }
+        // Crash after the new record was written but before the old one was marked removed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{LIVE}), FIRST_RECORD);
+        }
+
+        try (FaceTemplateStore store = FaceTemplateStore.open(file)) {
+            assertEquals(1, store.size());
+            assertArrayEquals(face(2), store.readFace("100"));
+            assertArrayEquals(descriptor(2), store.readDescriptor("100"));
+            int[] seen = new int[1];
+            store.forEachDescriptor((nationalId, descriptor) -> seen[0]++);
+            assertEquals(1, seen[0]);
+            // The stale slot is free again
+            store.put("300", face(3), descriptor(3));
+            store.put("100", face(4), descriptor(4));
+        }
+        try (FaceTemplateStore store = FaceTemplateStore.open(file)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(face(4), store.readFace("100"));
+            assertArrayEquals(face(3), store.readFace("300"));
+        }
+    }
+
+    private static byte[] face(int seed) {
+        byte[] face = new byte[FaceTemplateStore.FACE_BYTES];
+        Arrays.fill(face, (byte) seed);
+        return face;
+    }
+
+    private static float[] descriptor(int seed) {
+        float[] descriptor = new float[LbpFaceMatcher.LENGTH];
+        Arrays.fill(descriptor, seed / 10f);
+        return descriptor;
+    }
+}
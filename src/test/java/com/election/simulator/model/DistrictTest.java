@@ -0,0 +1,47 @@
+package com.election.simulator.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistrictTest {
+
+    @Test
+    void renamingAPartyKeepsItsDistrictVotes() {
+        District district = new District("North", 5);
+        Party party = new Party("Green Party", "GRN");
+        district.addVote(party);
+        district.addVote(party);
+
+        // Changes equals/hashCode, which must not orphan the tally
+        party.setName("Green Alliance");
+        party.setAbbreviation("GA");
+        district.addVote(party);
+
+        assertEquals(3, district.getVotes(party));
+        assertEquals(3, district.getTotalVotes());
+        district.removeVotesForParty(party);
+        assertEquals(0, district.getTotalVotes());
+    }
+
+    @Test
+    void equalPartiesKeepSeparateTallies() {
+        District district = new District("South", 5);
+        Party first = new Party("Unity", "UNI");
+        Party second = new Party("Unity", "UNI");
+        district.addVote(first);
+        assertEquals(1, district.getVotes(first));
+        assertEquals(0, district.getVotes(second));
+    }
+
+    @Test
+    void totalsAreNotTruncatedToInt() {
+        District district = new District("Capital", 10);
+        Party party = new Party("Large", "LRG");
+        long votes = Integer.MAX_VALUE + 10L;
+        district.setVotes(party, votes);
+        district.addVote(party);
+        assertEquals(votes + 1, district.getVotes(party));
+        assertEquals(votes + 1, district.getTotalVotes());
+    }
+}
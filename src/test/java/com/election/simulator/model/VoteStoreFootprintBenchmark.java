@@ -0,0 +1,80 @@
+package com.election.simulator.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares the heap used per ballot by the columnar VoteStore with the
+ * previous object model, a List of Vote each holding its own Voter and
+ * LocalDateTime plus a HashSet of voted national IDs. Heap use is measured
+ * after a full GC, and VoteStore's own estimate is printed next to it.
+ *
+ * Usage: VoteStoreFootprintBenchmark [ballots]
+ * (run with a fixed heap, e.g. -Xms4g -Xmx4g, for stable figures)
+ */
+public class VoteStoreFootprintBenchmark {
+    private static final Party[] PARTIES = {
+            new Party("Democratic Party", "DEM"), new Party("Republican Party", "REP"),
+            new Party("Independent Party", "IND"), new Party("Green Party", "GRN")};
+
+    // Holds the structure under test so it stays reachable while measuring
+    private static Object retained;
+
+    public static void main(String[] args) {
+        int ballots = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long castAt = System.currentTimeMillis();
+        System.out.printf("%,d ballots%n", ballots);
+
+        long before = usedHeap();
+        List<Vote> votes = new ArrayList<>();
+        Set<String> voted = new HashSet<>();
+        for (int i = 0; i < ballots; i++) {
+            String nationalId = nationalId(i);
+            Voter voter = new Voter("voter_" + nationalId, "", "", nationalId, false);
+            voted.add(nationalId);
+            votes.add(new Vote(voter, PARTIES[i % PARTIES.length], LocalDateTime.now()));
+        }
+        retained = new Object[]{votes, voted};
+        long objectModel = usedHeap() - before;
+        retained = null;
+        votes = null;
+        voted = null;
+
+        before = usedHeap();
+        VoteStore store = new VoteStore();
+        for (int i = 0; i < ballots; i++) {
+            store.record(nationalId(i), PARTIES[i % PARTIES.length], castAt + i);
+        }
+        retained = store;
+        long columnar = usedHeap() - before;
+
+        System.out.printf("%-28s %,14d bytes %8.1f bytes/ballot%n", "List<Vote> + voted set", objectModel,
+                (double) objectModel / ballots);
+        System.out.printf("%-28s %,14d bytes %8.1f bytes/ballot%n", "VoteStore (measured)", columnar,
+                (double) columnar / ballots);
+        long estimate = store.estimateFootprintBytes();
+        System.out.printf("%-28s %,14d bytes %8.1f bytes/ballot%n", "VoteStore (estimate)", estimate,
+                (double) estimate / ballots);
+        System.out.printf("Columnar store uses %.1fx less heap%n", (double) objectModel / columnar);
+    }
+
+    private static String nationalId(int n) {
+        return String.format("%011d", n);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,80 @@
+package com.election.simulator.persistence;
+
+import com.election.simulator.model.Election;
+import com.election.simulator.model.Party;
+import com.election.simulator.model.Voter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times saving and loading a snapshot. Opening reads only the summary, so
+ * results are available at once; the voter and ballot sections are timed
+ * separately, as they are restored in the background after a load.
+ *
+ * Usage: ElectionSnapshotBenchmark [ballots] [compress]
+ */
+public class ElectionSnapshotBenchmark {
+    public static void main(String[] args) throws IOException {
+        int ballots = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        boolean compress = args.length <= 1 || Boolean.parseBoolean(args[1]);
+
+        Election election = new Election("Benchmark Election", 100);
+        Party[] parties = {
+                new Party("Democratic Party", "DEM"), new Party("Republican Party", "REP"),
+                new Party("Independent Party", "IND"), new Party("Green Party", "GRN")};
+        for (Party party : parties) {
+            election.addParty(party);
+        }
+        long castAt = System.currentTimeMillis();
+        List<Voter> voters = new ArrayList<>(ballots);
+        for (int i = 0; i < ballots; i++) {
+            String nationalId = String.valueOf(10_000_000_000L + i);
+            Party party = parties[i % parties.length];
+            election.recordVote(nationalId, party, castAt + i);
+            party.addVote();
+            Voter voter = new Voter("voter_" + nationalId, "hash", "Voter " + i, nationalId, false);
+            voter.setHasVoted(true);
+            voters.add(voter);
+        }
+
+        Path path = Files.createTempFile("election-benchmark", ".snapshot");
+        try {
+            long start = System.nanoTime();
+            ElectionSnapshot.write(path, election, voters, "D'Hondt", compress);
+            System.out.printf("%,d ballots, compress=%b: write %.0f ms, %,d bytes%n",
+                    ballots, compress, millisSince(start), Files.size(path));
+            voters = null;
+
+            for (int run = 0; run < 3; run++) {
+                start = System.nanoTime();
+                try (ElectionSnapshot snapshot = ElectionSnapshot.open(path)) {
+                    double openMillis = millisSince(start);
+
+                    long voterStart = System.nanoTime();
+                    long[] restoredVoters = new long[1];
+                    snapshot.loadVoters(voter -> restoredVoters[0]++);
+                    double voterMillis = millisSince(voterStart);
+
+                    long ballotStart = System.nanoTime();
+                    Election restored = snapshot.getElection();
+                    snapshot.loadBallots((party, nationalId, at) -> restored.recordVote(nationalId, party, at));
+                    double ballotMillis = millisSince(ballotStart);
+
+                    System.out.printf("run %d: open %.1f ms, %,d voters %.0f ms, %,d ballots %.0f ms, total %.0f ms%n",
+                            run + 1, openMillis, restoredVoters[0], voterMillis, restored.getTotalVotes(),
+                            ballotMillis, millisSince(start));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
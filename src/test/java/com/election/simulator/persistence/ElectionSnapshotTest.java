@@ -0,0 +1,199 @@
+package com.election.simulator.persistence;
+
+import com.election.simulator.model.Alliance;
+import com.election.simulator.model.District;
+import com.election.simulator.model.Election;
+import com.election.simulator.model.Party;
+import com.election.simulator.model.Voter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElectionSnapshotTest {
+    private static final long CAST_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsCompressedSnapshot() throws IOException {
+        assertRoundTrip(true);
+    }
+
+    @Test
+    void roundTripsUncompressedSnapshot() throws IOException {
+        assertRoundTrip(false);
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousSnapshot() throws IOException {
+        Path path = directory.resolve("election.snapshot");
+        Election election = sampleElection();
+        ElectionSnapshot.write(path, election, sampleVoters(), "D'Hondt", true);
+        byte[] previous = Files.readAllBytes(path);
+
+        // A voter roll that fails halfway through, like a crash mid-save
+        List<Voter> voters = sampleVoters();
+        Iterable<Voter> failing = new AbstractCollection<Voter>() {
+            @Override
+            public Iterator<Voter> iterator() {
+                Iterator<Voter> delegate = voters.iterator();
+                return new Iterator<Voter>() {
+                    int returned;
+
+                    @Override
+                    public boolean hasNext() {
+                        return delegate.hasNext();
+                    }
+
+                    @Override
+                    public Voter next() {
+                        if (++returned > 1) {
+                            throw new IllegalStateException("interrupted save");
+                        }
+                        return delegate.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return voters.size();
+            }
+        };
+        election.recordVote("later-voter", election.getPoliticalParties().get(0), CAST_AT);
+        assertThrows(IllegalStateException.class, () ->
+                ElectionSnapshot.write(path, election, (AbstractCollection<Voter>) failing, "D'Hondt", true));
+
+        assertTrue(java.util.Arrays.equals(previous, Files.readAllBytes(path)), "Previous snapshot was changed");
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "Temporary file left behind");
+        }
+        try (ElectionSnapshot snapshot = ElectionSnapshot.open(path)) {
+            assertEquals(4, snapshot.getBallotCount());
+        }
+    }
+
+    private void assertRoundTrip(boolean compress) throws IOException {
+        Path path = directory.resolve("election.snapshot");
+        Election election = sampleElection();
+        List<Voter> voters = sampleVoters();
+        ElectionSnapshot.write(path, election, voters, "Sainte-Lague", compress);
+
+        try (ElectionSnapshot snapshot = ElectionSnapshot.open(path)) {
+            Election restored = snapshot.getElection();
+            assertEquals("Test Election", restored.getElectionName());
+            assertEquals(15, restored.getTotalSeats());
+            assertEquals("Sainte-Lague", snapshot.getStrategyName());
+            assertEquals(3, restored.getCompensationSeats());
+            assertEquals(5.0, restored.getNationalThresholdPercent(), 0);
+            assertEquals(8.0, restored.getAllianceThresholdPercent(), 0);
+            assertEquals(2.5, restored.getDistrictThresholdPercent(), 0);
+            assertEquals(2, restored.getThresholdExemptionDistricts());
+            assertEquals(voters.size(), snapshot.getVoterCount());
+            assertEquals(4, snapshot.getBallotCount());
+
+            List<Party> parties = restored.getPoliticalParties();
+            assertEquals(3, parties.size());
+            for (int i = 0; i < parties.size(); i++) {
+                Party original = election.getPoliticalParties().get(i);
+                assertEquals(original.getName(), parties.get(i).getName());
+                assertEquals(original.getAbbreviation(), parties.get(i).getAbbreviation());
+                assertEquals(original.getIconPath(), parties.get(i).getIconPath());
+                assertEquals(original.getVotes(), parties.get(i).getVotes());
+                assertEquals(original.getSeats(), parties.get(i).getSeats());
+            }
+
+            District north = restored.findDistrict("North");
+            assertEquals(7, north.getSeats());
+            assertEquals(2, north.getVotes(parties.get(0)));
+            assertEquals(1, north.getVotes(parties.get(2)));
+            assertEquals(1, restored.findDistrict("South").getVotes(parties.get(1)));
+
+            Alliance alliance = restored.findAlliance(parties.get(1));
+            assertEquals("Coalition", alliance.getName());
+            assertTrue(alliance.contains(parties.get(2)));
+            assertFalse(alliance.contains(parties.get(0)));
+
+            // Ballots are only read on demand
+            assertEquals(0, restored.getTotalVotes());
+            List<Voter> restoredVoters = new ArrayList<>();
+            snapshot.loadVoters(restoredVoters::add);
+            assertEquals(voters.size(), restoredVoters.size());
+            for (int i = 0; i < voters.size(); i++) {
+                Voter expected = voters.get(i);
+                Voter actual = restoredVoters.get(i);
+                assertEquals(expected.getUsername(), actual.getUsername());
+                assertEquals(expected.getPassword(), actual.getPassword());
+                assertEquals(expected.getFullName(), actual.getFullName());
+                assertEquals(expected.getNationalId(), actual.getNationalId());
+                assertEquals(expected.isAdmin(), actual.isAdmin());
+                assertEquals(expected.hasVoted(), actual.hasVoted());
+            }
+
+            snapshot.loadBallots((party, nationalId, castAt) -> restored.recordVote(nationalId, party, castAt));
+            assertEquals(4, restored.getTotalVotes());
+            assertTrue(restored.hasVoted("100"));
+            assertEquals(parties.get(0), restored.getVoteStore().getParty(0));
+            assertEquals("100", restored.getVoteStore().getNationalId(0));
+            assertEquals(CAST_AT, restored.getVoteStore().getTimestamp(0));
+        }
+    }
+
+    private static Election sampleElection() {
+        Election election = new Election("Test Election", 15);
+        election.setCompensationSeats(3);
+        election.setNationalThresholdPercent(5);
+        election.setAllianceThresholdPercent(8);
+        election.setDistrictThresholdPercent(2.5);
+        election.setThresholdExemptionDistricts(2);
+        Party red = new Party("Red Party", "RED", "icons/red.png");
+        Party blue = new Party("Blue Party", "BLU");
+        Party green = new Party("Green Party", "GRN");
+        election.addParty(red);
+        election.addParty(blue);
+        election.addParty(green);
+        District north = new District("North", 7);
+        District south = new District("South", 5);
+        election.addDistrict(north);
+        election.addDistrict(south);
+        election.addAlliance(new Alliance("Coalition", List.of(blue, green)));
+
+        vote(election, "100", red, north);
+        vote(election, "101", red, north);
+        vote(election, "102", blue, south);
+        vote(election, "103", green, north);
+        red.setSeats(8);
+        blue.setSeats(4);
+        green.setSeats(3);
+        return election;
+    }
+
+    private static void vote(Election election, String nationalId, Party party, District district) {
+        election.recordVote(nationalId, party, CAST_AT);
+        party.addVote();
+        district.addVote(party);
+    }
+
+    private static List<Voter> sampleVoters() {
+        List<Voter> voters = new ArrayList<>();
+        voters.add(new Voter("admin", "hash-a", "Admin User", "1", true));
+        Voter alice = new Voter("alice", "hash-b", "Alice Example", "100", false);
+        alice.setHasVoted(true);
+        voters.add(alice);
+        voters.add(new Voter("bob", "hash-c", "Bob Example", "200", false));
+        return voters;
+    }
+}
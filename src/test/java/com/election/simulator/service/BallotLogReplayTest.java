@@ -0,0 +1,164 @@
+package com.election.simulator.service;
+
+import com.election.simulator.model.Party;
+import com.election.simulator.model.Voter;
+import com.election.simulator.persistence.BallotLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A restart must replay the ballot log into the same state the previous
+ * run ended with, including resets and removed parties.
+ */
+class BallotLogReplayTest {
+    @TempDir
+    Path directory;
+
+    private PrintStream console;
+
+    @BeforeEach
+    void silenceConsole() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void replayRestoresCastBallots() {
+        Path log = directory.resolve("ballots.log");
+        ElectionService first = start(log);
+        first.castVote("1", "Democratic Party");
+        first.castVote("2", "Green Party");
+        first.castVote("3", "Green Party");
+        first.closeBallotLog();
+
+        ElectionService restarted = start(log);
+        assertEquals(3, restarted.getCurrentElection().getTotalVotes());
+        assertEquals(2, restarted.findPartyByName("Green Party").getVotes());
+        assertFalse(restarted.castVote("2", "Democratic Party"), "Replayed voter votes again");
+        restarted.closeBallotLog();
+    }
+
+    @Test
+    void resetIsNotUndoneByReplay() {
+        Path log = directory.resolve("ballots.log");
+        ElectionService first = start(log);
+        first.castVote("1", "Democratic Party");
+        first.castVote("2", "Green Party");
+        first.resetElection();
+        first.castVote("3", "Independent Party");
+        first.closeBallotLog();
+
+        ElectionService restarted = start(log);
+        assertEquals(1, restarted.getCurrentElection().getTotalVotes());
+        assertEquals(0, restarted.findPartyByName("Green Party").getVotes());
+        assertTrue(restarted.castVote("1", "Green Party"), "Voter released by the reset");
+        restarted.closeBallotLog();
+    }
+
+    @Test
+    void removedPartyStaysRemovedAfterReplay() {
+        Path log = directory.resolve("ballots.log");
+        ElectionService first = start(log);
+        first.castVote("1", "Green Party");
+        first.castVote("2", "Green Party");
+        first.castVote("3", "Democratic Party");
+        first.removeParty(first.findPartyByName("Green Party"));
+        // A released voter votes again after the removal
+        first.castVote("1", "Democratic Party");
+        first.closeBallotLog();
+
+        ElectionService restarted = start(log);
+        assertNull(restarted.findPartyByName("Green Party"));
+        assertEquals(2, restarted.getCurrentElection().getTotalVotes());
+        assertEquals(2, restarted.findPartyByName("Democratic Party").getVotes());
+        assertTrue(restarted.getCurrentElection().hasVoted("1"));
+        assertFalse(restarted.getCurrentElection().hasVoted("2"));
+        restarted.closeBallotLog();
+    }
+
+    @Test
+    void renamedPartyKeepsItsBallotsAfterReplay() {
+        Path log = directory.resolve("ballots.log");
+        ElectionService first = start(log);
+        first.castVote("1", "Green Party");
+        first.castVote("2", "Green Party");
+        Party green = first.findPartyByName("Green Party");
+        assertTrue(first.updateParty(green, "Green Alliance", green.getAbbreviation(), green.getIconPath()));
+        first.castVote("3", "Green Alliance");
+        first.closeBallotLog();
+
+        ElectionService restarted = start(log);
+        assertNull(restarted.findPartyByName("Green Party"));
+        assertEquals(3, restarted.findPartyByName("Green Alliance").getVotes());
+        assertEquals(3, restarted.getCurrentElection().getTotalVotes());
+        restarted.closeBallotLog();
+    }
+
+    @Test
+    void loadingASnapshotDetachesTheLog() throws Exception {
+        Path log = directory.resolve("ballots.log");
+        Path snapshot = directory.resolve("election.snapshot");
+        ElectionService first = start(log);
+        first.castVote("1", "Democratic Party");
+        first.saveSnapshot(snapshot, Collections.emptyList(), false);
+        first.loadSnapshot(snapshot, voter -> { }).get();
+        first.castVote("2", "Green Party");
+
+        ElectionService restarted = start(log);
+        assertEquals(1, restarted.getCurrentElection().getTotalVotes());
+        assertFalse(restarted.getCurrentElection().hasVoted("2"), "Ballot of the snapshot election was logged");
+        restarted.closeBallotLog();
+    }
+
+    @Test
+    void ballotIsRejectedWhenTheLogCannotBeWritten() throws IOException {
+        ElectionService service = new ElectionService();
+        service.initializeDefaultParties();
+        service.addDistrict("North", 4);
+        // Nothing is mapped yet, so the first append has to map the closed file and fails
+        BallotLog broken = BallotLog.open(directory.resolve("ballots.log"));
+        broken.close();
+        service.attachBallotLog(broken);
+
+        Party green = service.findPartyByName("Green Party");
+        Voter voter = new Voter("ada", "", "", "3", false);
+        assertFalse(service.castVote("1", "Green Party"));
+        assertFalse(service.castVote("2", "Green Party", "North"));
+        assertFalse(service.castVote(voter, green));
+
+        assertEquals(0, service.getCurrentElection().getTotalVotes());
+        assertEquals(0, green.getVotes());
+        assertEquals(0, service.getCurrentElection().findDistrict("North").getVotes(green));
+        assertFalse(voter.hasVoted());
+        assertFalse(service.getCurrentElection().hasVoted("2"), "Claim of the rejected ballot was released");
+
+        service.closeBallotLog();
+        assertTrue(service.castVote("2", "Green Party", "North"));
+        assertEquals(1, green.getVotes());
+    }
+
+    private static ElectionService start(Path log) {
+        ElectionService service = new ElectionService();
+        service.initializeDefaultParties();
+        assertTrue(service.attachBallotLog(log));
+        return service;
+    }
+}
@@ -0,0 +1,75 @@
+package com.election.simulator.service;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Measures the per-vote latency of ElectionService.castVote as the number of
+ * cast votes grows, for fresh voters and for repeat attempts that the
+ * has-voted index must reject. With a constant-time index both columns stay
+ * flat from the first thousand votes to the last.
+ *
+ * Usage: DuplicateVoteCheckBenchmark [max votes]
+ * (10M votes need a heap of about 2 GB, e.g. -Xmx2g)
+ */
+public class DuplicateVoteCheckBenchmark {
+    private static final String[] PARTIES = {"Democratic Party", "Republican Party", "Independent Party", "Green Party"};
+    private static final int MAX_SAMPLE = 10_000;
+    private static final int WARMUP_VOTES = 1_000_000;
+
+    public static void main(String[] args) {
+        long maxVotes = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        PrintStream console = System.out;
+        // castVote logs every ballot; keep that out of the timing
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            run(new ElectionService(), WARMUP_VOTES, null);
+            run(new ElectionService(), maxVotes, console);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void run(ElectionService service, long maxVotes, PrintStream report) {
+        service.initializeDefaultParties();
+        if (report != null) {
+            report.printf("%12s %16s %18s%n", "cast votes", "ns/new vote", "ns/repeat vote");
+        }
+        long cast = 0;
+        for (long checkpoint = 1_000; checkpoint <= maxVotes; checkpoint *= 10) {
+            int sample = (int) Math.min(MAX_SAMPLE, checkpoint / 2);
+            while (cast < checkpoint - sample) {
+                service.castVote(nationalId(cast), PARTIES[(int) (cast % PARTIES.length)]);
+                cast++;
+            }
+            String[] fresh = new String[sample];
+            for (int i = 0; i < sample; i++) {
+                fresh[i] = nationalId(cast + i);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < sample; i++) {
+                service.castVote(fresh[i], PARTIES[i % PARTIES.length]);
+            }
+            long newVote = (System.nanoTime() - start) / sample;
+            cast += sample;
+
+            start = System.nanoTime();
+            for (int i = 0; i < sample; i++) {
+                service.castVote(fresh[i], PARTIES[0]);
+            }
+            long repeatVote = (System.nanoTime() - start) / sample;
+
+            if (report != null) {
+                report.printf("%,12d %16d %18d%n", cast, newVote, repeatVote);
+            }
+        }
+        if (report != null) {
+            report.println("Total votes recorded: " + service.getCurrentElection().getTotalVotes());
+        }
+    }
+
+    private static String nationalId(long n) {
+        return String.format("%011d", n);
+    }
+}
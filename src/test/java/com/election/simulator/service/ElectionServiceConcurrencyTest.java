@@ -0,0 +1,161 @@
+package com.election.simulator.service;
+
+import com.election.simulator.model.District;
+import com.election.simulator.model.Party;
+import com.election.simulator.model.VoteStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Casts ballots from many threads at once, with every voter trying to vote
+ * from several threads, and checks that each voter is counted exactly once.
+ */
+class ElectionServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int VOTERS = 5_000;
+    private static final String[] PARTIES = {"Democratic Party", "Republican Party", "Independent Party", "Green Party"};
+
+    private PrintStream console;
+
+    @BeforeEach
+    void silenceBallotLogging() {
+        // castVote reports every ballot on the console
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void everyVoterIsCountedExactlyOnce() throws Exception {
+        ElectionService service = new ElectionService();
+        service.initializeDefaultParties();
+        service.addDistrict("North", 10);
+        service.addDistrict("South", 10);
+
+        Set<String> accepted = ConcurrentHashMap.newKeySet();
+        AtomicInteger acceptedCasts = new AtomicInteger();
+        runConcurrently(thread -> {
+            // Every thread walks all voters from a different starting point
+            for (int n = 0; n < VOTERS; n++) {
+                int voter = (n + thread * VOTERS / THREADS) % VOTERS;
+                String nationalId = String.format("%011d", voter);
+                String party = PARTIES[(voter + thread) % PARTIES.length];
+                String district = voter % 2 == 0 ? "North" : "South";
+                if (service.castVote(nationalId, party, district)) {
+                    acceptedCasts.incrementAndGet();
+                    assertTrue(accepted.add(nationalId), "Second cast accepted for " + nationalId);
+                }
+            }
+        });
+
+        assertEquals(VOTERS, acceptedCasts.get());
+        assertEquals(VOTERS, service.getCurrentElection().getTotalVotes());
+
+        long partyTotal = 0;
+        for (Party party : service.getParties()) {
+            partyTotal += party.getVotes();
+        }
+        assertEquals(VOTERS, partyTotal, "Sum of party tallies");
+
+        long districtTotal = 0;
+        for (District district : service.getDistricts()) {
+            districtTotal += district.getTotalVotes();
+        }
+        assertEquals(VOTERS, districtTotal, "Sum of district tallies");
+
+        Set<String> stored = new HashSet<>();
+        service.getCurrentElection().getVoteStore().forEach((party, nationalId, castAt) ->
+                assertTrue(stored.add(nationalId), "Two ballots stored for " + nationalId));
+        assertEquals(accepted, stored);
+    }
+
+    @Test
+    void partyTalliesMatchStoredBallots() throws Exception {
+        ElectionService service = new ElectionService();
+        service.initializeDefaultParties();
+
+        // Disjoint voters, so every cast must be accepted
+        runConcurrently(thread -> {
+            for (int n = 0; n < VOTERS; n++) {
+                service.castVote(thread + "-" + n, PARTIES[n % PARTIES.length]);
+            }
+        });
+
+        assertEquals(THREADS * VOTERS, service.getCurrentElection().getTotalVotes());
+        for (Party party : service.getParties()) {
+            assertEquals(THREADS * VOTERS / PARTIES.length, party.getVotes(), party.getName());
+            assertEquals(party.getVotes(), (int) service.getCurrentElection().getPartyVotes().get(party), party.getName());
+        }
+    }
+
+    @Test
+    void voteStoreClaimsEachNationalIdOnce() throws Exception {
+        VoteStore store = new VoteStore();
+        List<Party> parties = List.of(new Party("Alpha", "ALP"), new Party("Beta", "BET"));
+        AtomicInteger accepted = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int n = 0; n < VOTERS * 4; n++) {
+                if (store.record("ID" + (n % VOTERS), parties.get(thread % 2), n)) {
+                    accepted.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(VOTERS, accepted.get());
+        assertEquals(VOTERS, store.size());
+        int counted = 0;
+        for (int count : store.countByParty().values()) {
+            counted += count;
+        }
+        assertEquals(VOTERS, counted);
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    // Starts all threads together so their casts overlap as much as possible
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] results = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results[t] = pool.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.election.simulator.service;
+
+import com.election.simulator.model.Party;
+import com.election.simulator.model.Voter;
+import com.election.simulator.service.allocation.SeatAllocationStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The preview, comparison and live projection must agree with
+ * calculateAndAllocateSeats, thresholds and alliances included.
+ */
+class SeatAllocationConsistencyTest {
+    private PrintStream console;
+    private ElectionService service;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        service = new ElectionService();
+        service.initializeDefaultParties();
+        service.addParty(new Party("Pirate Party", "PIR"));
+        service.setTotalSeats(20);
+        service.setNationalThreshold(5);
+        service.addAlliance("Left Bloc", List.of("Independent Party", "Green Party"));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void previewMatchesAllocationWithThresholdAndAlliance() {
+        castVotes(new int[]{500, 380, 70, 40, 10});
+        assertEquals(0, allocated()[4], "Pirate Party is below the threshold");
+
+        for (SeatAllocationStrategy strategy : service.getAvailableStrategies()) {
+            service.setSeatAllocationStrategy(strategy);
+            int[] preview = service.previewSeatAllocation(strategy);
+            assertArrayEquals(allocated(), preview, strategy.getName());
+            assertArrayEquals(preview, service.compareAllocationMethods().get(strategy.getName()), strategy.getName());
+        }
+    }
+
+    @Test
+    void liveProjectionTracksAllocationBetweenCalls() {
+        int[] batch = {30, 20, 5, 3, 1};
+        for (int round = 0; round < 10; round++) {
+            castVotes(batch);
+            int[] live = service.getLiveSeatProjection();
+            assertArrayEquals(allocated(), live, "round " + round);
+            assertArrayEquals(live, service.getLiveSeatProjection(), "round " + round);
+        }
+    }
+
+    @Test
+    void previewMatchesDistrictAllocation() {
+        service.addDistrict("North", 8);
+        service.addDistrict("South", 8);
+        service.setCompensationSeats(4);
+        int voter = 0;
+        int[][] votes = {{200, 90, 40, 30, 8}, {120, 210, 15, 25, 20}};
+        String[] districts = {"North", "South"};
+        for (int d = 0; d < votes.length; d++) {
+            for (int p = 0; p < votes[d].length; p++) {
+                for (int v = 0; v < votes[d][p]; v++) {
+                    service.castVote("V" + voter++, service.getParties().get(p).getName(), districts[d]);
+                }
+            }
+        }
+        int[] preview = service.previewSeatAllocation(service.getSeatAllocationStrategy());
+        assertArrayEquals(allocated(), preview);
+        assertArrayEquals(preview, service.getLiveSeatProjection());
+        Map<String, int[]> comparison = service.compareAllocationMethods();
+        assertArrayEquals(preview, comparison.get(service.getSeatAllocationStrategy().getName()));
+    }
+
+    @Test
+    void ballotsWithoutDistrictCountTowardCompensationSeats() {
+        ElectionService districts = new ElectionService();
+        Party red = new Party("Red Party", "RED");
+        Party blue = new Party("Blue Party", "BLU");
+        districts.addParty(red);
+        districts.addParty(blue);
+        districts.addDistrict("North", 2);
+        districts.addDistrict("South", 2);
+        districts.setCompensationSeats(4);
+        int voter = 0;
+        for (String district : new String[]{"North", "South"}) {
+            for (int v = 0; v < 10; v++) {
+                districts.castVote("D" + voter++, "Red Party", district);
+                districts.castVote("D" + voter++, "Blue Party", district);
+            }
+        }
+        // Ballots from the console and GUI carry no district
+        for (int v = 0; v < 20; v++) {
+            districts.castVote("N" + v, "Blue Party");
+            districts.castVote(new Voter("gui" + v, "", "", "G" + v, false), blue);
+        }
+
+        districts.calculateAndAllocateSeats();
+        // Each district splits 1-1; the 40 ballots without a district win Blue all four compensation seats
+        assertEquals(2, red.getSeats());
+        assertEquals(6, blue.getSeats());
+        assertEquals(8, red.getSeats() + blue.getSeats(), "district plus compensation seats");
+        assertEquals(4, (int) districts.getCompensationResults().get(blue));
+        assertEquals(80, red.getVotes() + blue.getVotes());
+        assertArrayEquals(new int[]{2, 6}, districts.previewSeatAllocation(districts.getSeatAllocationStrategy()));
+    }
+
+    private int voterCount;
+
+    private void castVotes(int[] perParty) {
+        List<Party> parties = service.getParties();
+        for (int p = 0; p < perParty.length; p++) {
+            for (int v = 0; v < perParty[p]; v++) {
+                service.castVote("N" + voterCount++, parties.get(p).getName());
+            }
+        }
+    }
+
+    private int[] allocated() {
+        service.calculateAndAllocateSeats();
+        List<Party> parties = service.getParties();
+        int[] seats = new int[parties.size()];
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = parties.get(i).getSeats();
+        }
+        return seats;
+    }
+}
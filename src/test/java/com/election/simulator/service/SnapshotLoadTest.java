@@ -0,0 +1,75 @@
+package com.election.simulator.service;
+
+import com.election.simulator.model.Voter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * While a snapshot's ballots are still streaming in, the duplicate-vote
+ * index is incomplete, so no ballot may be accepted.
+ */
+class SnapshotLoadTest {
+    @TempDir
+    Path directory;
+
+    private PrintStream console;
+
+    @BeforeEach
+    void silenceConsole() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void ballotsWaitUntilSnapshotBallotsAreLoaded() throws Exception {
+        Path path = directory.resolve("election.snapshot");
+        ElectionService saved = new ElectionService();
+        saved.initializeDefaultParties();
+        saved.castVote("1", "Democratic Party");
+        saved.castVote("2", "Green Party");
+        assertTrue(saved.saveSnapshot(path, Collections.singletonList(
+                new Voter("alice", "secret", "Alice", "1", false)), true));
+
+        ElectionService service = new ElectionService();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> loading = service.loadSnapshot(path, voter -> {
+            try {
+                // Hold the background load before any ballot row is restored
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertFalse(loading.isDone());
+        assertEquals(1, service.findPartyByName("Green Party").getVotes(), "Tallies come from the summary");
+        assertFalse(service.castVote("1", "Green Party"), "Voter with a pending ballot voted again");
+        assertFalse(service.castVote("3", "Green Party"), "Ballot accepted before the index was complete");
+
+        release.countDown();
+        loading.get(10, TimeUnit.SECONDS);
+        assertFalse(service.castVote("1", "Green Party"));
+        assertTrue(service.castVote("3", "Green Party"));
+        assertEquals(2, service.findPartyByName("Green Party").getVotes());
+        assertEquals(3, service.getCurrentElection().getTotalVotes());
+    }
+}
@@ -0,0 +1,71 @@
+package com.election.simulator.service.allocation;
+
+import java.util.Random;
+
+/**
+ * Compares the heap-based DHondtStrategy with the previous seat-by-seat
+ * loop over random national tallies, reporting microseconds per full
+ * allocation for each size.
+ *
+ * Usage: DHondtBenchmark [seats] [party counts...]
+ */
+public class DHondtBenchmark {
+    private static final int[] DEFAULT_PARTY_COUNTS = {10, 100, 300, 1_000};
+    private static final long RUN_MILLIS = 2_000;
+
+    // Keeps results live so the JIT cannot drop the allocations
+    private static long sink;
+
+    public static void main(String[] args) {
+        int totalSeats = args.length > 0 ? Integer.parseInt(args[0]) : 650;
+        int[] partyCounts = DEFAULT_PARTY_COUNTS;
+        if (args.length > 1) {
+            partyCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                partyCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        DHondtStrategy strategy = new DHondtStrategy();
+        System.out.println("D'Hondt allocation of " + totalSeats + " seats");
+        System.out.printf("%8s %14s %14s %9s%n", "parties", "legacy us", "heap us", "speedup");
+        for (int partyCount : partyCounts) {
+            long[] votes = randomVotes(partyCount, new Random(partyCount));
+            int[] seats = new int[partyCount];
+            SeatAllocator legacy = () -> LegacyDHondt.allocate(votes, partyCount, totalSeats, seats);
+            SeatAllocator heap = () -> strategy.allocate(votes, partyCount, totalSeats, seats);
+
+            // Warm up both before timing either
+            measure(legacy, seats, RUN_MILLIS / 4);
+            measure(heap, seats, RUN_MILLIS / 4);
+            double legacyMicros = measure(legacy, seats, RUN_MILLIS);
+            double heapMicros = measure(heap, seats, RUN_MILLIS);
+            System.out.printf("%8d %14.1f %14.1f %8.1fx%n", partyCount, legacyMicros, heapMicros, legacyMicros / heapMicros);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private interface SeatAllocator {
+        void allocate();
+    }
+
+    private static double measure(SeatAllocator allocator, int[] seats, long runMillis) {
+        long start = System.nanoTime();
+        long deadline = start + runMillis * 1_000_000;
+        long runs = 0;
+        while (System.nanoTime() < deadline) {
+            allocator.allocate();
+            sink += seats[0];
+            runs++;
+        }
+        return (System.nanoTime() - start) / 1e3 / runs;
+    }
+
+    // A few large parties and a long tail of small lists
+    private static long[] randomVotes(int partyCount, Random random) {
+        long[] votes = new long[partyCount];
+        for (int i = 0; i < partyCount; i++) {
+            votes[i] = 1 + (long) (2_000_000 * Math.pow(random.nextDouble(), 4));
+        }
+        return votes;
+    }
+}
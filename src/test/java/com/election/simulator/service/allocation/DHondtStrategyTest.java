@@ -0,0 +1,65 @@
+package com.election.simulator.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks the heap-based D'Hondt allocation against the previous
+ * seat-by-seat loop, including its tie-breaking.
+ */
+class DHondtStrategyTest {
+    private final DHondtStrategy strategy = new DHondtStrategy();
+
+    @Test
+    void allocatesTextbookExample() {
+        long[] votes = {100_000, 80_000, 30_000, 20_000};
+        int[] seats = new int[4];
+        strategy.allocate(votes, 4, 8, seats);
+        assertArrayEquals(new int[]{4, 3, 1, 0}, seats);
+    }
+
+    @Test
+    void breaksTiesLikeTheLegacyLoop() {
+        // Equal votes go to the party listed first; equal quotients to the larger party
+        assertSameAsLegacy(new long[]{500, 500, 500}, 4);
+        assertSameAsLegacy(new long[]{300, 600, 300, 600}, 5);
+        assertSameAsLegacy(new long[]{200, 100}, 2);
+        assertSameAsLegacy(new long[]{0, 0, 0}, 3);
+    }
+
+    @Test
+    void matchesLegacyLoopOnRandomTallies() {
+        Random random = new Random(7);
+        for (int round = 0; round < 2_000; round++) {
+            int partyCount = 1 + random.nextInt(40);
+            long[] votes = new long[partyCount];
+            // Small vote ranges produce many exact ties
+            int range = random.nextBoolean() ? 10 : 1_000_000;
+            for (int i = 0; i < partyCount; i++) {
+                votes[i] = random.nextInt(range);
+            }
+            assertSameAsLegacy(votes, random.nextInt(650));
+        }
+    }
+
+    @Test
+    void matchesLegacyLoopAtNationalScale() {
+        Random random = new Random(11);
+        long[] votes = new long[300];
+        for (int i = 0; i < votes.length; i++) {
+            votes[i] = (long) (1_000_000 * Math.pow(random.nextDouble(), 3));
+        }
+        assertSameAsLegacy(votes, 650);
+    }
+
+    private void assertSameAsLegacy(long[] votes, int totalSeats) {
+        int[] expected = new int[votes.length];
+        int[] actual = new int[votes.length];
+        LegacyDHondt.allocate(votes, votes.length, totalSeats, expected);
+        strategy.allocate(votes, votes.length, totalSeats, actual);
+        assertArrayEquals(expected, actual, totalSeats + " seats");
+    }
+}
@@ -0,0 +1,36 @@
+package com.election.simulator.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class DroopQuotaStrategyTest {
+    private final DroopQuotaStrategy strategy = new DroopQuotaStrategy();
+
+    @Test
+    void allocatesTextbookExample() {
+        // Quota 100,000 / 11 + 1 = 9,091
+        long[] votes = {47_000, 16_000, 15_800, 12_000, 6_100, 3_100};
+        int[] seats = new int[6];
+        strategy.allocate(votes, 6, 10, seats);
+        assertArrayEquals(new int[]{5, 2, 2, 1, 0, 0}, seats);
+    }
+
+    @Test
+    void spreadsLeftoverRoundsOnlyOverPartiesWithVotes() {
+        // 3 votes for 100 seats give a quota of 1, leaving 97 seats for remainder rounds
+        int[] seats = new int[4];
+        strategy.allocate(new long[]{2, 1, 0, 0}, 4, 100, seats);
+        assertArrayEquals(new int[]{51, 49, 0, 0}, seats);
+    }
+
+    @Test
+    void keepsUnitsZeroedByThresholdAtZeroSeats() {
+        long[] votes = {60, 40, 3};
+        boolean[] eligible = new boolean[3];
+        ThresholdFilter.apply(votes, 3, 103, new double[]{5, 5, 5}, new boolean[3], eligible);
+        int[] seats = new int[3];
+        strategy.allocate(votes, 3, 200, seats);
+        assertArrayEquals(new int[]{110, 90, 0}, seats);
+    }
+}
@@ -0,0 +1,34 @@
+package com.election.simulator.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class HareNiemeyerStrategyTest {
+    private final HareNiemeyerStrategy strategy = new HareNiemeyerStrategy();
+
+    @Test
+    void allocatesTextbookExample() {
+        // Quota 10,000: 7 seats by quota, 3 by the largest remainders
+        long[] votes = {47_000, 16_000, 15_800, 12_000, 6_100, 3_100};
+        int[] seats = new int[6];
+        strategy.allocate(votes, 6, 10, seats);
+        assertArrayEquals(new int[]{5, 2, 1, 1, 1, 0}, seats);
+    }
+
+    @Test
+    void breaksEqualRemaindersByVotes() {
+        int[] seats = new int[3];
+        strategy.allocate(new long[]{300, 300, 400}, 3, 3, seats);
+        assertArrayEquals(new int[]{1, 1, 1}, seats);
+        strategy.allocate(new long[]{150, 150, 200}, 3, 2, seats);
+        assertArrayEquals(new int[]{1, 0, 1}, seats);
+    }
+
+    @Test
+    void givesNoSeatsToPartiesWithoutVotesWhenVotesAreFewerThanSeats() {
+        int[] seats = new int[4];
+        strategy.allocate(new long[]{2, 0, 1, 0}, 4, 100, seats);
+        assertArrayEquals(new int[]{67, 0, 33, 0}, seats);
+    }
+}
@@ -0,0 +1,43 @@
+package com.election.simulator.service.allocation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The seat loop calculateAndAllocateSeats used before DHondtStrategy: parties
+ * sorted by votes, then every seat recomputes every party's quotient and
+ * goes to the first maximum. Kept as the reference for the heap allocator.
+ */
+final class LegacyDHondt {
+    private LegacyDHondt() {
+    }
+
+    static void allocate(long[] votes, int partyCount, int totalSeats, int[] seats) {
+        // A stable sort, so parties with equal votes keep their list order
+        Integer[] sortedParties = new Integer[partyCount];
+        for (int i = 0; i < partyCount; i++) {
+            sortedParties[i] = i;
+        }
+        Arrays.sort(sortedParties, Comparator.comparingLong((Integer p) -> votes[p]).reversed());
+
+        double[] quotients = new double[partyCount];
+        int[] allocatedSeats = new int[partyCount];
+        for (int i = 0; i < totalSeats; i++) {
+            int bestPartyIndex = -1;
+            double maxQuotient = -1.0;
+            for (int j = 0; j < partyCount; j++) {
+                quotients[j] = (double) votes[sortedParties[j]] / (allocatedSeats[j] + 1);
+                if (quotients[j] > maxQuotient) {
+                    maxQuotient = quotients[j];
+                    bestPartyIndex = j;
+                }
+            }
+            if (bestPartyIndex != -1) {
+                allocatedSeats[bestPartyIndex]++;
+            }
+        }
+        for (int j = 0; j < partyCount; j++) {
+            seats[sortedParties[j]] = allocatedSeats[j];
+        }
+    }
+}
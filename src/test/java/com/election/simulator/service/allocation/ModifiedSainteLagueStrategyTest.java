@@ -0,0 +1,34 @@
+package com.election.simulator.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ModifiedSainteLagueStrategyTest {
+    private final ModifiedSainteLagueStrategy strategy = new ModifiedSainteLagueStrategy();
+
+    @Test
+    void firstDivisorHoldsBackTheSmallestParties() {
+        // Plain Sainte-Laguë gives the fifth party a seat here: 4, 2, 2, 1, 1, 0
+        long[] votes = {47_000, 16_000, 15_800, 12_000, 6_100, 3_100};
+        int[] seats = new int[6];
+        strategy.allocate(votes, 6, 10, seats);
+        assertArrayEquals(new int[]{5, 2, 2, 1, 0, 0}, seats);
+    }
+
+    @Test
+    void continuesFromExistingSeats() {
+        long[] votes = {47_000, 16_000, 15_800, 12_000, 6_100, 3_100};
+        int[] seats = new int[6];
+        strategy.allocate(votes, 6, 6, seats);
+        strategy.allocateAdditional(votes, 6, 4, seats);
+        assertArrayEquals(new int[]{5, 2, 2, 1, 0, 0}, seats);
+    }
+
+    @Test
+    void givesNoSeatsToPartiesWithoutVotesWhenVotesAreFewerThanSeats() {
+        int[] seats = new int[3];
+        strategy.allocate(new long[]{2, 1, 0}, 3, 10, seats);
+        assertArrayEquals(new int[]{7, 3, 0}, seats);
+    }
+}
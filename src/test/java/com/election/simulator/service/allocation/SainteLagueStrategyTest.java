@@ -0,0 +1,32 @@
+package com.election.simulator.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SainteLagueStrategyTest {
+    private final SainteLagueStrategy strategy = new SainteLagueStrategy();
+
+    @Test
+    void allocatesTextbookExample() {
+        long[] votes = {47_000, 16_000, 15_800, 12_000, 6_100, 3_100};
+        int[] seats = new int[6];
+        strategy.allocate(votes, 6, 10, seats);
+        assertArrayEquals(new int[]{4, 2, 2, 1, 1, 0}, seats);
+    }
+
+    @Test
+    void favoursSmallPartiesLessThanDHondt() {
+        long[] votes = {53_000, 24_000, 23_000};
+        int[] seats = new int[3];
+        strategy.allocate(votes, 3, 7, seats);
+        assertArrayEquals(new int[]{3, 2, 2}, seats);
+    }
+
+    @Test
+    void givesNoSeatsToPartiesWithoutVotesWhenVotesAreFewerThanSeats() {
+        int[] seats = new int[3];
+        strategy.allocate(new long[]{2, 1, 0}, 3, 10, seats);
+        assertArrayEquals(new int[]{7, 3, 0}, seats);
+    }
+}